@@ -1,15 +1,24 @@
 package model;
 
-import org.json.JSONArray;
 import org.json.JSONObject;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 /*
  * Represents an Archive with given collections
  *
+ * FORMAT_VERSION: represents the version of the save format produced by toJson. Since version 2, cameras
+ *                 are given ids, and film refers to the cameras in the camera collection by those ids.
  * cameraCollection: represents a collection of cameras in the archive
  * filmCollection: represents a collection of film in the archive
  */
 
 public class Archive {
+    public static final int FORMAT_VERSION = 2;
+
     public final CameraCollection cameraCollection;
     public final FilmCollection filmCollection;
 
@@ -21,31 +30,55 @@ public class Archive {
 
     //EFFECTS: returns collections in the archive as a JSONObject
     public JSONObject toJson() {
-        JSONObject json = new JSONObject();
-        json.put("Cameras", camerasToJson());
-        json.put("Film", filmToJson());
-        return json;
+        return view().toJson();
     }
 
-    //EFFECTS: returns cameras in the archive as a JSONObject
-    private JSONArray camerasToJson() {
-        JSONArray jsonArray = new JSONArray();
+    // EFFECTS: returns the id of each camera in the camera collection, which is its index in the collection
+    public Map<Camera, Integer> getCameraIds() {
+        return view().getCameraIds();
+    }
 
+    // EFFECTS: returns a snapshot of copies of the cameras and film in the archive, which shares no film or cameras
+    //          with it and builds no collection, so that it can be written to file while this archive keeps
+    //          changing; film sharing a camera in this archive shares the copy of that camera in the snapshot
+    public ArchiveSnapshot snapshot() {
+        Map<Camera, Camera> cameras = new IdentityHashMap<>();
+        ArrayList<Camera> cameraCopies = new ArrayList<>(cameraCollection.getSize());
         for (Camera c : cameraCollection.getCollection()) {
-            jsonArray.put(c.toJson());
+            cameraCopies.add(copyCamera(cameras, c));
         }
 
-        return jsonArray;
+        ArrayList<Film> filmCopies = new ArrayList<>(filmCollection.getSize());
+        for (Film f : filmCollection.getCollection()) {
+            Camera camera = copyCamera(cameras, f.getCamera());
+            Film copy = new Film(f.getName(), f.getIso(), f.getType(), camera, f.getBrand());
+            if (f.getExpiry() != null) {
+                LocalDate date = f.getExpiry();
+                copy.setExpiry(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+            }
+            if (f.getDevelopDate() != null) {
+                LocalDate date = f.getDevelopDate();
+                copy.setDevelopDate(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+            }
+            copy.setDevelopLocation(f.getDevelopLocation());
+            copy.setDirectory(f.getDirectory());
+            filmCopies.add(copy);
+        }
+        return new ArchiveSnapshot(cameraCopies, filmCopies);
     }
 
-    //EFFECTS: returns film in the archive as a JSONObject
-    private JSONArray filmToJson() {
-        JSONArray jsonArray = new JSONArray();
+    // EFFECTS: returns a snapshot of the cameras and film in the archive that shares them with the archive, so the
+    //          archive must not change while it is used
+    public ArchiveSnapshot view() {
+        return new ArchiveSnapshot(cameraCollection.getCollection(), filmCollection.getCollection());
+    }
 
-        for (Film f : filmCollection.getCollection()) {
-            jsonArray.put(f.toJson());
+    // MODIFIES: cameras
+    // EFFECTS: returns the copy of the given camera in cameras, copying it first if it has not been copied yet
+    private static Camera copyCamera(Map<Camera, Camera> cameras, Camera camera) {
+        if (camera == null) {
+            return null;
         }
-
-        return jsonArray;
+        return cameras.computeIfAbsent(camera, c -> new Camera(c.getName(), c.getFilmType(), c.getManufacturer()));
     }
 }
@@ -0,0 +1,81 @@
+package model;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Represents the cameras and film of an archive as plain lists, without the indexes and observers of the
+ * collections, so that an archive can be written to file from a snapshot that is cheap to take.
+ *
+ * cameras: represents the cameras of the camera collection, in collection order
+ * film: represents the film of the film collection, in collection order
+ */
+public final class ArchiveSnapshot {
+    private final List<Camera> cameras;
+    private final List<Film> film;
+
+    // REQUIRES: the given lists, and the cameras and film in them, do not change while the snapshot is used
+    // EFFECTS: constructs a snapshot of the given cameras and film
+    public ArchiveSnapshot(List<Camera> cameras, List<Film> film) {
+        this.cameras = Collections.unmodifiableList(cameras);
+        this.film = Collections.unmodifiableList(film);
+    }
+
+    // EFFECTS: returns the cameras in the snapshot, in collection order
+    public List<Camera> getCameras() {
+        return cameras;
+    }
+
+    // EFFECTS: returns the film in the snapshot, in collection order
+    public List<Film> getFilm() {
+        return film;
+    }
+
+    // EFFECTS: returns the id of each camera in the snapshot, which is its index in the camera collection
+    public Map<Camera, Integer> getCameraIds() {
+        Map<Camera, Integer> cameraIds = new IdentityHashMap<>();
+        for (Camera c : cameras) {
+            cameraIds.putIfAbsent(c, cameraIds.size());
+        }
+        return cameraIds;
+    }
+
+    //EFFECTS: returns the cameras and film in the snapshot as a JSONObject
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        Map<Camera, Integer> cameraIds = getCameraIds();
+        json.put("version", Archive.FORMAT_VERSION);
+        json.put("Cameras", camerasToJson());
+        json.put("Film", filmToJson(cameraIds));
+        return json;
+    }
+
+    //EFFECTS: returns cameras in the snapshot as a JSONObject
+    private JSONArray camerasToJson() {
+        JSONArray jsonArray = new JSONArray();
+
+        int id = 0;
+        for (Camera c : cameras) {
+            jsonArray.put(c.toJson(id));
+            id++;
+        }
+
+        return jsonArray;
+    }
+
+    //EFFECTS: returns film in the snapshot as a JSONObject
+    private JSONArray filmToJson(Map<Camera, Integer> cameraIds) {
+        JSONArray jsonArray = new JSONArray();
+
+        for (Film f : film) {
+            jsonArray.put(f.toJson(cameraIds));
+        }
+
+        return jsonArray;
+    }
+}
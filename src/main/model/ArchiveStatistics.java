@@ -0,0 +1,281 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Represents statistics over the film of a collection: the number of rolls per brand, ISO, camera and developing
+ * location, how many rolls were expired when they were developed, and how many days past their expiry date rolls
+ * were developed at each location. The statistics are computed in a single pass over the collection, split between
+ * the threads of the common fork/join pool, and are then kept up to date as film is added, removed, or changed,
+ * by taking back what each film contributed and adding what it contributes now.
+ *
+ * THRESHOLD: represents the number of film below which a part of the collection is not split any further
+ * films: represents the collection the statistics are computed over, or null once detached
+ * contributions: represents what each film currently contributes to the statistics
+ * totals: represents the statistics of the collection
+ */
+public class ArchiveStatistics implements CollectionObserver<Film> {
+    static final int THRESHOLD = 1024;
+
+    private FilmCollection films;
+    private final Map<Film, Contribution> contributions;
+    private final Totals totals;
+
+    // EFFECTS: computes the statistics of the given collection in parallel, and keeps them up to date as the
+    //          collection changes until detached
+    public ArchiveStatistics(FilmCollection films) {
+        this.films = films;
+        List<Film> list = films.getCollection();
+        Totals computed = ForkJoinPool.commonPool().invoke(new Pass(list, 0, list.size()));
+        this.contributions = computed.contributions;
+        this.totals = computed;
+        films.addObserver(this);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops keeping the statistics up to date with the collection
+    public synchronized void detach() {
+        if (films != null) {
+            films.removeObserver(this);
+            films = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds what the given film contributes to the statistics
+    @Override
+    public synchronized void itemAdded(Film item, int index) {
+        Contribution contribution = new Contribution(item);
+        contributions.put(item, contribution);
+        totals.add(contribution, 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes back what the given film contributed to the statistics
+    @Override
+    public synchronized void itemRemoved(Film item, int index) {
+        Contribution contribution = contributions.remove(item);
+        if (contribution != null) {
+            totals.add(contribution, -1);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces what the given film contributed to the statistics by what it contributes now
+    @Override
+    public synchronized void itemChanged(Film item, String property) {
+        itemRemoved(item, -1);
+        itemAdded(item, -1);
+    }
+
+    // EFFECTS: returns the number of rolls
+    public synchronized int getRollCount() {
+        return contributions.size();
+    }
+
+    // EFFECTS: returns the number of rolls of each brand, sorted by brand
+    public synchronized SortedMap<String, Integer> getRollsByBrand() {
+        return new TreeMap<>(totals.byBrand);
+    }
+
+    // EFFECTS: returns the number of rolls of each ISO, sorted by ISO
+    public synchronized SortedMap<Integer, Integer> getRollsByIso() {
+        return new TreeMap<>(totals.byIso);
+    }
+
+    // EFFECTS: returns the number of rolls shot with each camera, by name of the camera, sorted by name;
+    //          rolls without a camera are not counted
+    public synchronized SortedMap<String, Integer> getRollsByCamera() {
+        return new TreeMap<>(totals.byCamera);
+    }
+
+    // EFFECTS: returns the number of rolls developed at each location, sorted by location;
+    //          rolls without a developing location are not counted
+    public synchronized SortedMap<String, Integer> getRollsByDevelopLocation() {
+        return new TreeMap<>(totals.byDevelopLocation);
+    }
+
+    // EFFECTS: returns the number of rolls with both an expiry and a developing date
+    public synchronized int getDatedCount() {
+        return totals.dated;
+    }
+
+    // EFFECTS: returns the number of rolls that were expired when they were developed
+    public synchronized int getExpiredWhenDevelopedCount() {
+        return totals.expiredWhenDeveloped;
+    }
+
+    // EFFECTS: returns the share of the rolls with both an expiry and a developing date that were expired when
+    //          they were developed, between 0 and 1, or 0 if there are no such rolls
+    public synchronized double getExpiredWhenDevelopedRatio() {
+        return totals.dated == 0 ? 0 : (double) totals.expiredWhenDeveloped / totals.dated;
+    }
+
+    // EFFECTS: returns the average number of days past their expiry date that rolls were developed at each
+    //          location, sorted by location; negative if rolls were developed before they expired. Only the rolls
+    //          with an expiry date, a developing date, and a developing location are counted.
+    public synchronized SortedMap<String, Double> getAverageDaysPastExpiryByLocation() {
+        SortedMap<String, Double> averages = new TreeMap<>();
+        for (Map.Entry<String, long[]> entry : totals.daysPastExpiryByLocation.entrySet()) {
+            averages.put(entry.getKey(), (double) entry.getValue()[0] / entry.getValue()[1]);
+        }
+        return averages;
+    }
+
+    /*
+     * Represents what a film contributes to the statistics, as it was when it was counted
+     *
+     * brand, iso, camera, developLocation: represent the properties of the film counted, null if not set
+     * expiredWhenDeveloped: represents whether the film was expired when it was developed,
+     *                       or null if it does not have both an expiry and a developing date
+     * daysPastExpiry: represents the number of days between the expiry and developing dates of the film,
+     *                 or null if it does not have both
+     */
+    private static class Contribution {
+        private final String brand;
+        private final int iso;
+        private final String camera;
+        private final String developLocation;
+        private final Boolean expiredWhenDeveloped;
+        private final Long daysPastExpiry;
+
+        // EFFECTS: constructs the contribution of the given film as it is now
+        Contribution(Film film) {
+            brand = film.getBrand();
+            iso = film.getIso();
+            camera = film.getCamera() == null ? null : film.getCamera().getName();
+            developLocation = film.getDevelopLocation();
+            LocalDate expiry = film.getExpiry();
+            LocalDate developDate = film.getDevelopDate();
+            if (expiry != null && developDate != null) {
+                expiredWhenDeveloped = film.isExpired();
+                daysPastExpiry = ChronoUnit.DAYS.between(expiry, developDate);
+            } else {
+                expiredWhenDeveloped = null;
+                daysPastExpiry = null;
+            }
+        }
+    }
+
+    /*
+     * Represents the statistics of a part of a collection, which can be merged with those of another part
+     *
+     * contributions: represents what each film of the part contributes
+     * byBrand, byIso, byCamera, byDevelopLocation: represent the number of rolls with each value of the property
+     * dated: represents the number of rolls with both an expiry and a developing date
+     * expiredWhenDeveloped: represents the number of rolls that were expired when they were developed
+     * daysPastExpiryByLocation: represents, for each developing location, the sum of the days past expiry of the
+     *                           rolls developed there and the number of those rolls
+     */
+    private static class Totals {
+        private final Map<Film, Contribution> contributions = new IdentityHashMap<>();
+        private final Map<String, Integer> byBrand = new HashMap<>();
+        private final Map<Integer, Integer> byIso = new HashMap<>();
+        private final Map<String, Integer> byCamera = new HashMap<>();
+        private final Map<String, Integer> byDevelopLocation = new HashMap<>();
+        private int dated;
+        private int expiredWhenDeveloped;
+        private final Map<String, long[]> daysPastExpiryByLocation = new HashMap<>();
+
+        // MODIFIES: this
+        // EFFECTS: adds the given contribution to the totals sign times; a sign of -1 takes it back
+        void add(Contribution c, int sign) {
+            count(byBrand, c.brand, sign);
+            count(byIso, c.iso, sign);
+            count(byCamera, c.camera, sign);
+            count(byDevelopLocation, c.developLocation, sign);
+            if (c.expiredWhenDeveloped != null) {
+                dated += sign;
+                if (c.expiredWhenDeveloped) {
+                    expiredWhenDeveloped += sign;
+                }
+                if (c.developLocation != null) {
+                    addDays(c.developLocation, sign * c.daysPastExpiry, sign);
+                }
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds the totals of another part of the collection to these totals
+        void merge(Totals other) {
+            contributions.putAll(other.contributions);
+            other.byBrand.forEach((k, v) -> count(byBrand, k, v));
+            other.byIso.forEach((k, v) -> count(byIso, k, v));
+            other.byCamera.forEach((k, v) -> count(byCamera, k, v));
+            other.byDevelopLocation.forEach((k, v) -> count(byDevelopLocation, k, v));
+            dated += other.dated;
+            expiredWhenDeveloped += other.expiredWhenDeveloped;
+            other.daysPastExpiryByLocation.forEach((k, v) -> addDays(k, v[0], v[1]));
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds the given days and rolls to the totals of the given developing location,
+        //          forgetting the location once no rolls are counted for it
+        private void addDays(String location, long days, long rolls) {
+            long[] sum = daysPastExpiryByLocation.computeIfAbsent(location, k -> new long[2]);
+            sum[0] += days;
+            sum[1] += rolls;
+            if (sum[1] == 0) {
+                daysPastExpiryByLocation.remove(location);
+            }
+        }
+
+        // MODIFIES: counts
+        // EFFECTS: adds delta to the count of the given key, unless it is null,
+        //          forgetting the key once its count is 0
+        private static <K> void count(Map<K, Integer> counts, K key, int delta) {
+            if (key != null) {
+                counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+            }
+        }
+    }
+
+    /*
+     * Represents the task computing the statistics of the film between two positions of a list, splitting the
+     * range in two halves computed in parallel while it holds more than THRESHOLD film
+     *
+     * films: represents the list of film
+     * from: represents the first position of the range
+     * to: represents the position after the last position of the range
+     */
+    private static class Pass extends RecursiveTask<Totals> {
+        private final List<Film> films;
+        private final int from;
+        private final int to;
+
+        // EFFECTS: constructs the task computing the statistics of the film from position from to position to
+        Pass(List<Film> films, int from, int to) {
+            this.films = films;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= THRESHOLD) {
+                Totals totals = new Totals();
+                for (Film f : films.subList(from, to)) {
+                    Contribution contribution = new Contribution(f);
+                    totals.contributions.put(f, contribution);
+                    totals.add(contribution, 1);
+                }
+                return totals;
+            }
+            int middle = (from + to) >>> 1;
+            Pass left = new Pass(films, from, middle);
+            left.fork();
+            Totals totals = new Pass(films, middle, to).compute();
+            totals.merge(left.join());
+            return totals;
+        }
+    }
+}
@@ -2,24 +2,52 @@ package model;
 
 import org.json.JSONObject;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+
 /*
  * Represents a Camera with given characteristics
  *
  * name: represents the name of the camera
  * filmType: represents the type of film the camera uses (polaroid, 35mm, medium format)
  * manufacturer: represents the manufacturer of the camera
+ * observers: represents the objects that are notified whenever a property of the camera changes
+ *
+ * Two Camera objects are only considered the same camera if they are the same instance, so editing a property
+ * never changes which collections consider the camera a member.
  */
 public class Camera {
 
     private String name;
     private String filmType;
     private String manufacturer;
+    private final LinkedHashSet<CameraObserver> observers;
 
     // EFFECTS: constructs new camera with given name, filmType, and manufacturer
     public Camera(String name, String filmType, String manufacturer) {
         this.name = name;
         this.filmType = filmType;
         this.manufacturer = manufacturer;
+        this.observers = new LinkedHashSet<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: registers the given observer to be notified whenever a property of the camera changes
+    public void addObserver(CameraObserver observer) {
+        observers.add(observer);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops notifying the given observer of changes to the camera
+    public void removeObserver(CameraObserver observer) {
+        observers.remove(observer);
+    }
+
+    // EFFECTS: notifies all observers that the given property of the camera has changed
+    private void notifyObservers(String property) {
+        for (CameraObserver o : new ArrayList<>(observers)) {
+            o.cameraChanged(this, property);
+        }
     }
 
     // EFFECTS: return the name of the camera
@@ -31,6 +59,7 @@ public class Camera {
     // EFFECTS: sets the name of the camera to given string
     public void setName(String name) {
         this.name = name;
+        notifyObservers("name");
     }
 
     // EFFECTS: return the film type of the camera
@@ -42,6 +71,7 @@ public class Camera {
     // EFFECTS: sets the film type of the camera
     public void setFilmType(String filmType) {
         this.filmType = filmType;
+        notifyObservers("film type");
     }
 
     // EFFECTS: return the manufacturer of the camera
@@ -53,6 +83,7 @@ public class Camera {
     // EFFECTS: set the manufacturer of the camera to the given string
     public void setManufacturer(String manufacturer) {
         this.manufacturer = manufacturer;
+        notifyObservers("manufacturer");
     }
 
     // EFFECTS: returns all properties of this camera as a JSONObject
@@ -64,6 +95,14 @@ public class Camera {
         return json;
     }
 
+    // EFFECTS: returns all properties of this camera as a JSONObject, along with the given id
+    //          that is used to refer to the camera from other records in the same file
+    public JSONObject toJson(int id) {
+        JSONObject json = toJson();
+        json.put("id", id);
+        return json;
+    }
+
     // EFFECTS: returns the camera as a string including the manufacturer and name
     @Override
     public String toString() {
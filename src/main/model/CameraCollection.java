@@ -1,18 +1,43 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 /*
  * Represents a collection of cameras, containing multiple cameras
  * <p>
  * collection: represents the list of cameras in the collection
+ * positions: represents the position of each camera in the collection, used to check whether a camera is
+ *            already in the collection and to find where it is in constant time. Cameras are compared by identity.
+ * observers: represents the objects that are notified whenever cameras are added, removed, or changed
+ * searchIndex: represents the full-text index over the name, manufacturer and film type of the cameras
  */
-public class CameraCollection {
+public class CameraCollection implements CameraObserver {
     private final ArrayList<Camera> collection;
+    private final Map<Camera, Integer> positions;
+    private final ArrayList<CollectionObserver<Camera>> observers;
+    private final SearchIndex<Camera> searchIndex;
 
     // EFFECTS: constructs new camera collection with an empty list of film
     public CameraCollection() {
         collection = new ArrayList<>();
+        positions = new IdentityHashMap<>();
+        observers = new ArrayList<>();
+        searchIndex = new SearchIndex<>(c -> Arrays.asList(c.getName(), c.getManufacturer(), c.getFilmType()));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: registers the given observer to be notified whenever cameras are added, removed, or changed
+    public void addObserver(CollectionObserver<Camera> observer) {
+        observers.add(observer);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops notifying the given observer of changes to the collection
+    public void removeObserver(CollectionObserver<Camera> observer) {
+        observers.remove(observer);
     }
 
     // EFFECTS: returns the size of the collection
@@ -23,10 +48,16 @@ public class CameraCollection {
     // MODIFIES: this
     // EFFECTS: add a camera to the collection
     public boolean addCamera(Camera camera) {
-        if (collection.contains(camera)) {
+        if (positions.containsKey(camera)) {
             return false;
         } else {
             collection.add(camera);
+            positions.put(camera, collection.size() - 1);
+            searchIndex.add(camera);
+            camera.addObserver(this);
+            for (CollectionObserver<Camera> o : new ArrayList<>(observers)) {
+                o.itemAdded(camera, collection.size() - 1);
+            }
             return true;
         }
     }
@@ -35,7 +66,40 @@ public class CameraCollection {
     // MODIFIES: this
     // EFFECTS: removes given camera from the collection
     public void removeCamera(Camera camera) {
-        collection.remove(camera);
+        Integer index = positions.remove(camera);
+        if (index != null) {
+            collection.remove((int) index);
+            for (int i = index; i < collection.size(); i++) {
+                positions.put(collection.get(i), i);
+            }
+            searchIndex.remove(camera);
+            camera.removeObserver(this);
+            for (CollectionObserver<Camera> o : new ArrayList<>(observers)) {
+                o.itemRemoved(camera, index);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates the search index and notifies the observers of the collection that the given property
+    //          of the given camera changed
+    @Override
+    public void cameraChanged(Camera camera, String property) {
+        searchIndex.update(camera);
+        for (CollectionObserver<Camera> o : new ArrayList<>(observers)) {
+            o.itemChanged(camera, property);
+        }
+    }
+
+    // EFFECTS: returns the index of the given camera in the collection, or -1 if it is not in the collection
+    public int indexOf(Camera camera) {
+        Integer position = positions.get(camera);
+        return position == null ? -1 : position;
+    }
+
+    // EFFECTS: returns true if the given camera is in the collection
+    public boolean contains(Camera camera) {
+        return positions.containsKey(camera);
     }
 
     // REQUIRES: index must be smaller than the size of the collection
@@ -50,6 +114,18 @@ public class CameraCollection {
         return collection;
     }
 
+    // EFFECTS: returns a list of the cameras whose name, manufacturer or film type contain, for every word of the
+    //          given text, a word starting with it, ignoring case, best matches first
+    public ArrayList<Camera> search(String text) {
+        return new ArrayList<>(searchIndex.search(text));
+    }
+
+    // EFFECTS: returns true if the given camera is in the collection and would be returned by search(text),
+    //          checking only the words of that camera
+    public boolean matches(Camera camera, String text) {
+        return searchIndex.matches(camera, text);
+    }
+
     // EFFECTS: returns a list of Cameras with given name
     public ArrayList<Camera> filterByName(String name) {
         ArrayList<Camera> filtered = new ArrayList<>();
@@ -0,0 +1,10 @@
+package model;
+
+/*
+ * Represents an object that is notified whenever a property of a camera changes
+ */
+public interface CameraObserver {
+
+    // EFFECTS: called after the given property of the given camera has been changed
+    void cameraChanged(Camera camera, String property);
+}
@@ -0,0 +1,16 @@
+package model;
+
+/*
+ * Represents an object that is notified whenever items are added to, removed from, or changed in a collection
+ */
+public interface CollectionObserver<T> {
+
+    // EFFECTS: called after the given item has been added to the collection at the given index
+    void itemAdded(T item, int index);
+
+    // EFFECTS: called after the given item has been removed from the given index of the collection
+    void itemRemoved(T item, int index);
+
+    // EFFECTS: called after the given property of the given item in the collection has changed
+    void itemChanged(T item, String property);
+}
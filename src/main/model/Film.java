@@ -3,6 +3,8 @@ package model;
 import org.json.JSONObject;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Map;
 
 /*
  * This class represents one roll/pack of film that the user has inputted into the file.
@@ -16,8 +18,12 @@ import java.time.LocalDate;
  * developDate: represents the date that the film was developed.
  * developLocation: represents the development lab that the film was developed
  * directory: represents the folder where the photos are stored on the computer
+ * observers: represents the objects that are notified whenever a property of the film changes
+ *
+ * Two Film objects are only considered the same film if they are the same instance, so editing a property
+ * never changes which collections consider the film a member.
  */
-public class Film {
+public class Film implements CameraObserver {
 
     private String name;
     private int iso;
@@ -28,6 +34,7 @@ public class Film {
     private LocalDate developDate;
     private String developLocation;
     private String directory;
+    private final ArrayList<FilmObserver> observers;
 
     //EFFECTS: creates a new roll/pack of film with given name, iso, type, camera, and brand
     public Film(String name, int iso, String type, Camera camera, String brand) {
@@ -36,6 +43,40 @@ public class Film {
         this.type = type;
         this.camera = camera;
         this.brand = brand;
+        this.observers = new ArrayList<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: registers the given observer to be notified whenever a property of the film changes,
+    //          including changes made to the camera of the film
+    public void addObserver(FilmObserver observer) {
+        if (observers.isEmpty() && camera != null) {
+            camera.addObserver(this);
+        }
+        observers.add(observer);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops notifying the given observer of changes to the film
+    public void removeObserver(FilmObserver observer) {
+        observers.remove(observer);
+        if (observers.isEmpty() && camera != null) {
+            camera.removeObserver(this);
+        }
+    }
+
+    // EFFECTS: notifies all observers that the given property of the film has changed
+    private void notifyObservers(String property) {
+        for (FilmObserver o : new ArrayList<>(observers)) {
+            o.filmChanged(this, property);
+        }
+    }
+
+    // EFFECTS: notifies all observers of the film that the given property of its camera has changed,
+    //          as the property "camera " followed by the name of the camera property
+    @Override
+    public void cameraChanged(Camera camera, String property) {
+        notifyObservers("camera " + property);
     }
 
     // REQUIRES: Film object with both an expiry and a develop date
@@ -55,6 +96,7 @@ public class Film {
     // EFFECTS: sets expiry date of the given roll/pack of film
     public void setExpiry(int year, int month, int day) {
         expiry = LocalDate.of(year, month, day);
+        notifyObservers("expiry");
     }
 
     // REQUIRES: Film object with a developing date
@@ -68,6 +110,7 @@ public class Film {
     // EFFECTS: sets the developing date of the film
     public void setDevelopDate(int year, int month, int day) {
         developDate = LocalDate.of(year, month, day);
+        notifyObservers("develop date");
     }
 
     // EFFECTS: return the name given to the film
@@ -79,6 +122,7 @@ public class Film {
     // EFFECTS: sets the name of the film to given string
     public void setName(String name) {
         this.name = name;
+        notifyObservers("name");
     }
 
     // EFFECTS: return the ISO of the film
@@ -91,6 +135,7 @@ public class Film {
     // EFFECTS: sets the ISO of the film to given integer
     public void setIso(int iso) {
         this.iso = iso;
+        notifyObservers("iso");
     }
 
     // EFFECTS: return the type of the film
@@ -102,6 +147,7 @@ public class Film {
     // EFFECTS: sets the type of film used
     public void setType(String type) {
         this.type = type;
+        notifyObservers("type");
     }
 
     // EFFECTS: returns the camera used to capture photos on the film
@@ -114,7 +160,14 @@ public class Film {
     // if the camera and the film are of the same type
     public boolean setCamera(Camera camera) {
         if (camera.getFilmType().equals(type)) {
+            if (!observers.isEmpty()) {
+                if (this.camera != null) {
+                    this.camera.removeObserver(this);
+                }
+                camera.addObserver(this);
+            }
             this.camera = camera;
+            notifyObservers("camera");
             return true;
         }
         return false;
@@ -129,6 +182,7 @@ public class Film {
     // EFFECTS: sets the brand of the film to given string
     public void setBrand(String brand) {
         this.brand = brand;
+        notifyObservers("brand");
     }
 
     // REQUIRES: film with a developing location
@@ -141,6 +195,7 @@ public class Film {
     // EFFECTS: sets the developing location of the film to given string
     public void setDevelopLocation(String developLocation) {
         this.developLocation = developLocation;
+        notifyObservers("develop location");
     }
 
     // REQUIRES: film with an image path
@@ -154,15 +209,31 @@ public class Film {
     // EFFECTS: set the image path of the film
     public void setDirectory(String directory) {
         this.directory = directory;
+        notifyObservers("directory");
     }
 
     // EFFECTS: returns the properties of this film as a JSONObject
     public JSONObject toJson() {
+        return toJson(camera.toJson());
+    }
+
+    // EFFECTS: returns the properties of this film as a JSONObject, referring to the camera by its id
+    //          if it is in cameraIds, and including a copy of the camera otherwise
+    public JSONObject toJson(Map<Camera, Integer> cameraIds) {
+        Integer id = cameraIds.get(camera);
+        if (id == null) {
+            return toJson();
+        }
+        return toJson(id);
+    }
+
+    // EFFECTS: returns the properties of this film as a JSONObject, with the given value for the camera
+    private JSONObject toJson(Object cameraJson) {
         JSONObject json = new JSONObject();
         json.put("name", name);
         json.put("iso", iso);
         json.put("type", type);
-        json.put("camera", camera.toJson());
+        json.put("camera", cameraJson);
         json.put("brand", brand);
         json.put("expiry", dateToJson(expiry));
         json.put("develop date", dateToJson(developDate));
@@ -2,175 +2,399 @@ package model;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 /*
  * Represents a collection of film, containing multiple rolls/packs of film
  * <p>
  * collection: represents the list of film rolls/packs in the collection
+ * positions: represents the position of each film roll/pack in the collection, used to check whether a film
+ *            is already in the collection and to find where it is in constant time. Film is compared by
+ *            identity, so two separate rolls with the same properties are both kept.
+ * collectionOrder: represents the order of the film in the collection, in which filtered film is returned
+ * byName, byIso, byType, byBrand, byCamera, byExpiry, byDevelopDate, byDevelopLocation, byDirectory:
+ *     represent indexes of the film in the collection, grouped by the property used to filter them.
+ *     The indexes are kept up to date as film is added, removed, and edited. Every index but the one
+ *     on directories is sorted, so that it can also answer range and prefix queries.
+ * sortedIndexes: represents the sorted indexes, by the name of the property they index, used to plan queries
+ * searchIndex: represents the full-text index over the name, brand, type, developing location, and camera name
+ *              and manufacturer of the film in the collection
+ * source: represents the records of film that have not been decoded yet, or null if every film has been decoded.
+ *         Until a film is decoded, its place in the collection holds null, and it is not a member of any index,
+ *         so every film is decoded before the whole collection is returned, filtered, or shifted by a removal.
+ * undecoded: represents the number of film records in the source that have not been decoded yet
+ * observers: represents the objects that are notified whenever film is added, removed, or changed
  */
-public class FilmCollection {
+public class FilmCollection implements FilmObserver, Iterable<Film> {
     private final ArrayList<Film> collection;
+    private final Map<Film, Integer> positions;
+    private final Comparator<Film> collectionOrder;
+    private FilmSource source;
+    private int undecoded;
+    private final ArrayList<CollectionObserver<Film>> observers;
+
+    private final SortedFilmIndex<String> byName;
+    private final SortedFilmIndex<Integer> byIso;
+    private final SortedFilmIndex<String> byType;
+    private final SortedFilmIndex<String> byBrand;
+    private final SortedFilmIndex<String> byCamera;
+    private final SortedFilmIndex<LocalDate> byExpiry;
+    private final SortedFilmIndex<LocalDate> byDevelopDate;
+    private final SortedFilmIndex<String> byDevelopLocation;
+    private final FilmIndex<Boolean> byDirectory;
+    private final ArrayList<FilmIndex<?>> indexes;
+    private final Map<String, SortedFilmIndex<?>> sortedIndexes;
+    private final SearchIndex<Film> searchIndex;
 
     // EFFECTS: constructs a new film collection with an empty list of cameras
     public FilmCollection() {
         collection = new ArrayList<>();
+        positions = new IdentityHashMap<>();
+        collectionOrder = Comparator.comparingInt(positions::get);
+        observers = new ArrayList<>();
+
+        byName = new SortedFilmIndex<>(Film::getName);
+        byIso = new SortedFilmIndex<>(Film::getIso);
+        byType = new SortedFilmIndex<>(Film::getType);
+        byBrand = new SortedFilmIndex<>(Film::getBrand);
+        byCamera = new SortedFilmIndex<>(f -> f.getCamera() == null ? null : f.getCamera().getName());
+        byExpiry = new SortedFilmIndex<>(Film::getExpiry);
+        byDevelopDate = new SortedFilmIndex<>(Film::getDevelopDate);
+        byDevelopLocation = new SortedFilmIndex<>(Film::getDevelopLocation);
+        byDirectory = new FilmIndex<>(f -> f.getDirectory() == null ? null : Boolean.TRUE);
+
+        indexes = new ArrayList<>();
+        indexes.add(byName);
+        indexes.add(byIso);
+        indexes.add(byType);
+        indexes.add(byBrand);
+        indexes.add(byCamera);
+        indexes.add(byExpiry);
+        indexes.add(byDevelopDate);
+        indexes.add(byDevelopLocation);
+        indexes.add(byDirectory);
+
+        sortedIndexes = new HashMap<>();
+        sortedIndexes.put("name", byName);
+        sortedIndexes.put("iso", byIso);
+        sortedIndexes.put("type", byType);
+        sortedIndexes.put("brand", byBrand);
+        sortedIndexes.put("camera", byCamera);
+        sortedIndexes.put("expiry", byExpiry);
+        sortedIndexes.put("develop date", byDevelopDate);
+        sortedIndexes.put("develop location", byDevelopLocation);
+
+        searchIndex = new SearchIndex<>(f -> Arrays.asList(f.getName(), f.getBrand(), f.getType(),
+                f.getDevelopLocation(), f.getCamera() == null ? null : f.getCamera().getName(),
+                f.getCamera() == null ? null : f.getCamera().getManufacturer()));
+    }
+
+    // EFFECTS: constructs a new film collection containing the film records of the given source,
+    //          which are only decoded the first time each film is needed
+    public FilmCollection(FilmSource source) {
+        this();
+        if (source.size() > 0) {
+            this.source = source;
+            this.undecoded = source.size();
+            collection.addAll(Collections.nCopies(source.size(), null));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: registers the given observer to be notified whenever film is added, removed, or changed
+    public void addObserver(CollectionObserver<Film> observer) {
+        observers.add(observer);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops notifying the given observer of changes to the collection
+    public void removeObserver(CollectionObserver<Film> observer) {
+        observers.remove(observer);
     }
 
     // MODIFIES: this
     // EFFECTS: adds a roll/pack of film to the collection,
     // if it is not already in the collection.
     public boolean addFilm(Film film) {
-        if (collection.contains(film)) {
+        if (positions.containsKey(film)) {
             return false;
         } else {
             collection.add(film);
+            register(film, collection.size() - 1);
+            for (CollectionObserver<Film> o : new ArrayList<>(observers)) {
+                o.itemAdded(film, collection.size() - 1);
+            }
             return true;
         }
     }
 
+    // MODIFIES: this, film
+    // EFFECTS: makes the given film, at the given position, a member of the collection and of every index
+    private void register(Film film, int position) {
+        positions.put(film, position);
+        for (FilmIndex<?> index : indexes) {
+            index.add(film);
+        }
+        searchIndex.add(film);
+        film.addObserver(this);
+    }
+
     // REQUIRES: film must be in this collection
     // MODIFIES: this
     // EFFECTS: removes given roll/pack of film from collection
     public void removeFilm(Film film) {
-        collection.remove(film);
+        Integer position = positions.remove(film);
+        if (position != null) {
+            decodeAll();
+            collection.remove((int) position);
+            for (int i = position; i < collection.size(); i++) {
+                positions.put(collection.get(i), i);
+            }
+            for (FilmIndex<?> index : indexes) {
+                index.remove(film);
+            }
+            searchIndex.remove(film);
+            film.removeObserver(this);
+            for (CollectionObserver<Film> o : new ArrayList<>(observers)) {
+                o.itemRemoved(film, position);
+            }
+        }
     }
 
-    // REQUIRES: index must be smaller than the size of the collection
-    // EFFECTS: return the roll/pack of film at the given index in the collection
-    public Film getRoll(int index) {
-        return collection.get(index);
+    // MODIFIES: this
+    // EFFECTS: moves the given film to the correct place in each index after one of its properties changed,
+    //          and notifies the observers of the collection
+    @Override
+    public void filmChanged(Film film, String property) {
+        for (FilmIndex<?> index : indexes) {
+            index.update(film);
+        }
+        searchIndex.update(film);
+        for (CollectionObserver<Film> o : new ArrayList<>(observers)) {
+            o.itemChanged(film, property);
+        }
     }
 
-    // EFFECTS: returns a list containing all of the film rolls/packs in the collection
-    public ArrayList<Film> getCollection() {
-        return collection;
+    // EFFECTS: returns the index of the given film in the collection, or -1 if it is not in the collection
+    public int indexOf(Film film) {
+        Integer position = positions.get(film);
+        return position == null ? -1 : position;
     }
 
-    // EFFECTS: returns the size of the collection
-    public int getSize() {
-        return collection.size();
+    // REQUIRES: index must be smaller than the size of the collection
+    // EFFECTS: return the roll/pack of film at the given index in the collection, decoding it if needed
+    public Film getRoll(int index) {
+        Film film = collection.get(index);
+        if (film == null) {
+            film = decode(index);
+        }
+        return film;
     }
 
-    // EFFECTS: returns a list of film rolls/packs that were taken using the given camera
-    public ArrayList<Film> filterByCamera(Camera camera) {
-        ArrayList<Film> filtered = new ArrayList<>();
-        String cameraName = camera.getName();
-
-        for (Film f : collection) {
-            if (f.getCamera().getName().equals(cameraName)) {
-                filtered.add(f);
+    // MODIFIES: this
+    // EFFECTS: decodes the film at the given index from the source, if it has not been decoded yet,
+    //          and returns it
+    private synchronized Film decode(int index) {
+        Film film = collection.get(index);
+        if (film == null) {
+            film = source.decode(index);
+            collection.set(index, film);
+            register(film, index);
+            undecoded--;
+            if (undecoded == 0) {
+                source = null;
             }
         }
-
-        return filtered;
+        return film;
     }
 
-    // EFFECTS: returns a list of film rolls/packs with given name
-    public ArrayList<Film> filterByName(String name) {
-        ArrayList<Film> filtered = new ArrayList<>();
-
-        for (Film f : collection) {
-            if (f.getName().equals(name)) {
-                filtered.add(f);
+    // MODIFIES: this
+    // EFFECTS: decodes every film that has not been decoded yet
+    private synchronized void decodeAll() {
+        for (int i = 0; source != null && i < collection.size(); i++) {
+            if (collection.get(i) == null) {
+                decode(i);
             }
         }
+    }
 
-        return filtered;
+    // EFFECTS: returns true if some film in the collection has not been decoded yet
+    public boolean isPartiallyDecoded() {
+        return source != null;
     }
 
-    // EFFECTS: returns a list of film rolls/packs with given ISO
-    public ArrayList<Film> filterByIso(int iso) {
-        ArrayList<Film> filtered = new ArrayList<>();
+    // EFFECTS: returns a list containing all of the film rolls/packs in the collection, decoding any
+    //          that have not been decoded yet
+    public ArrayList<Film> getCollection() {
+        decodeAll();
+        return collection;
+    }
 
-        for (Film f : collection) {
-            if (f.getIso() == iso) {
-                filtered.add(f);
+    // EFFECTS: returns an iterator over the film rolls/packs in the collection, which decodes each film
+    //          only when the iterator reaches it
+    @Override
+    public Iterator<Film> iterator() {
+        return new Iterator<Film>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < collection.size();
             }
-        }
 
-        return filtered;
+            @Override
+            public Film next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Film film = getRoll(next);
+                next++;
+                return film;
+            }
+        };
     }
 
-    // EFFECTS: returns a list of film rolls/packs with given type
-    public ArrayList<Film> filterByType(String type) {
-        ArrayList<Film> filtered = new ArrayList<>();
+    // EFFECTS: returns true if the given roll/pack of film is in the collection
+    public boolean contains(Film film) {
+        return positions.containsKey(film);
+    }
 
-        for (Film f : collection) {
-            if (f.getType().equals(type)) {
-                filtered.add(f);
-            }
-        }
+    // EFFECTS: returns the size of the collection
+    public int getSize() {
+        return collection.size();
+    }
 
-        return filtered;
+    // EFFECTS: returns a list of film rolls/packs that were taken using a camera with the same name
+    //          as the given camera, in collection order
+    public ArrayList<Film> filterByCamera(Camera camera) {
+        decodeAll();
+        return byCamera.get(camera.getName(), collectionOrder);
     }
 
-    // EFFECTS: returns a list of film rolls/packs with given brand
-    public ArrayList<Film> filterByBrand(String brand) {
-        ArrayList<Film> filtered = new ArrayList<>();
+    // EFFECTS: returns a list of film rolls/packs with given name, in collection order
+    public ArrayList<Film> filterByName(String name) {
+        decodeAll();
+        return byName.get(name, collectionOrder);
+    }
 
-        for (Film f : collection) {
-            if (f.getBrand().equals(brand)) {
-                filtered.add(f);
-            }
-        }
+    // EFFECTS: returns a list of film rolls/packs with given ISO, in collection order
+    public ArrayList<Film> filterByIso(int iso) {
+        decodeAll();
+        return byIso.get(iso, collectionOrder);
+    }
 
-        return filtered;
+    // EFFECTS: returns a list of film rolls/packs with given type, in collection order
+    public ArrayList<Film> filterByType(String type) {
+        decodeAll();
+        return byType.get(type, collectionOrder);
+    }
+
+    // EFFECTS: returns a list of film rolls/packs with given brand, in collection order
+    public ArrayList<Film> filterByBrand(String brand) {
+        decodeAll();
+        return byBrand.get(brand, collectionOrder);
     }
 
-    // EFFECTS: returns a list of film rolls/packs with the given expiry date
+    // EFFECTS: returns a list of film rolls/packs with the given expiry date, in collection order
     public ArrayList<Film> filterByExpiry(LocalDate expiry) {
-        ArrayList<Film> filtered = new ArrayList<>();
+        decodeAll();
+        return byExpiry.get(expiry, collectionOrder);
+    }
 
-        for (Film f : collection) {
-            if (f.getExpiry() != null) {
-                if (f.getExpiry().equals(expiry)) {
-                    filtered.add(f);
-                }
-            }
-        }
+    // EFFECTS: returns a list of film rolls/packs with the given developing date, in collection order
+    public ArrayList<Film> filterByDevelopDate(LocalDate developDate) {
+        decodeAll();
+        return byDevelopDate.get(developDate, collectionOrder);
+    }
 
-        return filtered;
+    // EFFECTS: returns a list of film rolls/packs with an expiry date between from and to (both inclusive),
+    //          sorted by expiry date and in collection order among film with the same expiry date;
+    //          a null date leaves that end of the range open
+    public ArrayList<Film> filterByExpiryBetween(LocalDate from, LocalDate to) {
+        decodeAll();
+        return byExpiry.getRange(from, to, collectionOrder);
     }
 
-    // EFFECTS: returns a list of film rolls/packs with the given developing date
-    public ArrayList<Film> filterByDevelopDate(LocalDate developDate) {
+    // EFFECTS: returns a list of film rolls/packs with a developing date between from and to (both inclusive),
+    //          sorted by developing date and in collection order among film with the same developing date;
+    //          a null date leaves that end of the range open
+    public ArrayList<Film> filterByDevelopDateBetween(LocalDate from, LocalDate to) {
+        decodeAll();
+        return byDevelopDate.getRange(from, to, collectionOrder);
+    }
+
+    // EFFECTS: returns a list of film rolls/packs that were expired when they were developed,
+    //          sorted by developing date and in collection order among film with the same developing date
+    public ArrayList<Film> filterByExpiredWhenDeveloped() {
+        decodeAll();
         ArrayList<Film> filtered = new ArrayList<>();
 
-        for (Film f : collection) {
-            if (f.getDevelopDate() != null) {
-                if (f.getDevelopDate().equals(developDate)) {
-                    filtered.add(f);
-                }
+        for (Film f : byDevelopDate.getRange(null, null, collectionOrder)) {
+            if (f.getExpiry() != null && f.isExpired()) {
+                filtered.add(f);
             }
         }
 
         return filtered;
     }
 
-    // EFFECTS: returns a list of film rolls/packs with the given developing location
+    // EFFECTS: returns a list of film rolls/packs with the given developing location, in collection order
     public ArrayList<Film> filterByDevelopLocation(String developLocation) {
-        ArrayList<Film> filtered = new ArrayList<>();
+        decodeAll();
+        return byDevelopLocation.get(developLocation, collectionOrder);
+    }
 
-        for (Film f : collection) {
-            if (f.getDevelopLocation() != null) {
-                if (f.getDevelopLocation().equals(developLocation)) {
-                    filtered.add(f);
-                }
+    // EFFECTS: returns a list of film rolls/packs with a images path, in collection order
+    public ArrayList<Film> filterByPhotosPathExist() {
+        decodeAll();
+        return byDirectory.get(Boolean.TRUE, collectionOrder);
+    }
+
+    // EFFECTS: returns a list of the film rolls/packs matching the given query, in no particular order.
+    //          The candidates are found through the most selective index that can answer part of the query,
+    //          and are checked against the whole query in a single pass; if no index can answer the query,
+    //          or the index would return more film than the collection holds, every film is checked instead.
+    public ArrayList<Film> query(FilmQuery query) {
+        decodeAll();
+        FilmQuery.Plan plan = query.plan(this);
+        Collection<Film> candidates = plan == null || plan.getEstimate() >= collection.size()
+                ? collection : plan.getCandidates();
+
+        ArrayList<Film> matching = new ArrayList<>();
+        for (Film f : candidates) {
+            if (query.matches(f)) {
+                matching.add(f);
             }
         }
+        return matching;
+    }
 
-        return filtered;
+    // EFFECTS: returns a list of the film rolls/packs whose name, brand, type, developing location, or camera name
+    //          or manufacturer contain, for every word of the given text, a word starting with it, ignoring case,
+    //          best matches first
+    public ArrayList<Film> search(String text) {
+        decodeAll();
+        return new ArrayList<>(searchIndex.search(text));
     }
 
-    // EFFECTS: returns a list of film rolls/packs with a images path
-    public ArrayList<Film> filterByPhotosPathExist() {
-        ArrayList<Film> filtered = new ArrayList<>();
+    // EFFECTS: returns true if the given film is in the collection and would be returned by search(text), checking
+    //          only the words of that film
+    public boolean matches(Film film, String text) {
+        return searchIndex.matches(film, text);
+    }
 
-        for (Film f : collection) {
-            if (f.getDirectory() != null) {
-                filtered.add(f);
-            }
-        }
-        return filtered;
+    // REQUIRES: property is the name of a sorted index, with keys of type K
+    // EFFECTS: returns the sorted index of the given property
+    @SuppressWarnings("unchecked")
+    <K extends Comparable<? super K>> SortedFilmIndex<K> getIndex(String property) {
+        return (SortedFilmIndex<K>) sortedIndexes.get(property);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/*
+ * Represents a secondary index over a collection of film, grouping rolls/packs of film by the
+ * value of one of their properties. Films whose indexed property is null are not indexed.
+ *
+ * keyFunction: represents the function used to get the indexed property of a film
+ * buckets: represents the films in the index, grouped by the value of their indexed property
+ * keys: represents the key that each film is currently indexed under
+ */
+class FilmIndex<K> {
+    private final Function<Film, K> keyFunction;
+    protected final Map<K, LinkedHashSet<Film>> buckets;
+    private final Map<Film, K> keys;
+
+    // EFFECTS: constructs an empty hash index over the property given by keyFunction
+    FilmIndex(Function<Film, K> keyFunction) {
+        this(keyFunction, new HashMap<>());
+    }
+
+    // EFFECTS: constructs an empty index over the property given by keyFunction, storing the
+    //          films in the given map of buckets
+    protected FilmIndex(Function<Film, K> keyFunction, Map<K, LinkedHashSet<Film>> buckets) {
+        this.keyFunction = keyFunction;
+        this.buckets = buckets;
+        this.keys = new IdentityHashMap<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the given film to the index under the current value of its indexed property
+    void add(Film film) {
+        K key = keyFunction.apply(film);
+        if (key != null) {
+            keys.put(film, key);
+            buckets.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(film);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the given film from the index, if it is in the index
+    void remove(Film film) {
+        K key = keys.remove(film);
+        if (key != null) {
+            LinkedHashSet<Film> bucket = buckets.get(key);
+            bucket.remove(film);
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the given film to the bucket matching the current value of its indexed property
+    void update(Film film) {
+        if (!Objects.equals(keys.get(film), keyFunction.apply(film))) {
+            remove(film);
+            add(film);
+        }
+    }
+
+    // EFFECTS: returns a list of the films indexed under the given key
+    ArrayList<Film> get(K key) {
+        LinkedHashSet<Film> bucket = key == null ? null : buckets.get(key);
+        if (bucket == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(bucket);
+    }
+
+    // EFFECTS: returns a list of the films indexed under the given key, in the given order. A film that is edited
+    //          or decoded later than the films before it moves to the end of its bucket, so the order of a bucket
+    //          is not the order of the collection.
+    ArrayList<Film> get(K key, Comparator<? super Film> order) {
+        ArrayList<Film> films = get(key);
+        films.sort(order);
+        return films;
+    }
+}
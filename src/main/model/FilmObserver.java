@@ -0,0 +1,10 @@
+package model;
+
+/*
+ * Represents an object that is notified whenever a property of a roll/pack of film changes
+ */
+public interface FilmObserver {
+
+    // EFFECTS: called after the given property of the given film has been changed
+    void filmChanged(Film film, String property);
+}
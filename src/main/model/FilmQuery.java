@@ -0,0 +1,414 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+ * Represents a query over a collection of film, made of predicates on the properties of film combined with
+ * AND, OR and NOT. A query is answered by FilmCollection.query, which plans it against the indexes of the
+ * collection: the predicates that an index can answer report how many films the index would return, the most
+ * selective of them is used to find the candidate films, and the whole query is then checked against each
+ * candidate in a single pass. A query that no index can answer is checked against every film.
+ *
+ * Estimates are kept cheap by counting the films of at most MAX_ESTIMATED_KEYS keys of an index; a range or
+ * prefix covering more keys than that is assumed to match every film, so it is only used if nothing narrower is.
+ *
+ * MAX_ESTIMATED_KEYS: represents the number of keys of an index counted at most to estimate a range or prefix
+ * STRING_PROPERTIES: represents the properties of film that can be matched as text, by name
+ */
+public abstract class FilmQuery {
+    static final int MAX_ESTIMATED_KEYS = 64;
+    private static final Map<String, Function<Film, String>> STRING_PROPERTIES = new HashMap<>();
+
+    static {
+        STRING_PROPERTIES.put("name", Film::getName);
+        STRING_PROPERTIES.put("type", Film::getType);
+        STRING_PROPERTIES.put("brand", Film::getBrand);
+        STRING_PROPERTIES.put("camera", f -> f.getCamera() == null ? null : f.getCamera().getName());
+        STRING_PROPERTIES.put("develop location", Film::getDevelopLocation);
+    }
+
+    // EFFECTS: returns true if the given film matches the query
+    public abstract boolean matches(Film film);
+
+    // EFFECTS: returns the plan answering the query from the indexes of the given collection, or null if the query
+    //          cannot be answered from the indexes
+    abstract Plan plan(FilmCollection films);
+
+    // EFFECTS: returns a query matching the film whose given property equals the given value; the property
+    //          is one of "name", "type", "brand", "camera" (the name of the camera) or "develop location";
+    //          throws IllegalArgumentException if the property is not one of those
+    public static FilmQuery equalTo(String property, String value) {
+        return new Range<>(property, stringProperty(property), value, value);
+    }
+
+    // EFFECTS: returns a query matching the film whose given property starts with the given prefix;
+    //          throws IllegalArgumentException if the property cannot be matched as text
+    public static FilmQuery startsWith(String property, String prefix) {
+        return new Prefix(property, stringProperty(property), prefix);
+    }
+
+    // EFFECTS: returns a query matching the film whose given property contains the given text, ignoring case;
+    //          throws IllegalArgumentException if the property cannot be matched as text
+    public static FilmQuery contains(String property, String text) {
+        return new Contains(stringProperty(property), text);
+    }
+
+    // EFFECTS: returns a query matching the film with the given ISO
+    public static FilmQuery isoEqualTo(int iso) {
+        return isoBetween(iso, iso);
+    }
+
+    // EFFECTS: returns a query matching the film with an ISO between from and to (both inclusive);
+    //          a null bound leaves that end of the range open
+    public static FilmQuery isoBetween(Integer from, Integer to) {
+        return new Range<>("iso", Film::getIso, from, to);
+    }
+
+    // EFFECTS: returns a query matching the film with an expiry date between from and to (both inclusive);
+    //          a null bound leaves that end of the range open
+    public static FilmQuery expiryBetween(LocalDate from, LocalDate to) {
+        return new Range<>("expiry", Film::getExpiry, from, to);
+    }
+
+    // EFFECTS: returns a query matching the film with a developing date between from and to (both inclusive);
+    //          a null bound leaves that end of the range open
+    public static FilmQuery developDateBetween(LocalDate from, LocalDate to) {
+        return new Range<>("develop date", Film::getDevelopDate, from, to);
+    }
+
+    // EFFECTS: returns a query matching the film that match every one of the given queries
+    public static FilmQuery and(FilmQuery... queries) {
+        return new And(Arrays.asList(queries));
+    }
+
+    // EFFECTS: returns a query matching the film that match at least one of the given queries
+    public static FilmQuery or(FilmQuery... queries) {
+        return new Or(Arrays.asList(queries));
+    }
+
+    // EFFECTS: returns a query matching the film that do not match the given query
+    public static FilmQuery not(FilmQuery query) {
+        return new Not(query);
+    }
+
+    // EFFECTS: returns the function used to get the given property of a film as text;
+    //          throws IllegalArgumentException if the property cannot be matched as text
+    private static Function<Film, String> stringProperty(String property) {
+        Function<Film, String> getter = STRING_PROPERTIES.get(property);
+        if (getter == null) {
+            throw new IllegalArgumentException("Not a text property of film: " + property);
+        }
+        return getter;
+    }
+
+    // EFFECTS: returns the number of films in the given buckets, or the size of the given collection if there are
+    //          more than MAX_ESTIMATED_KEYS buckets
+    private static int estimate(Iterable<LinkedHashSet<Film>> buckets, FilmCollection films) {
+        int count = 0;
+        int keys = 0;
+        for (LinkedHashSet<Film> bucket : buckets) {
+            if (++keys > MAX_ESTIMATED_KEYS) {
+                return films.getSize();
+            }
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    /*
+     * Represents how a query is answered from the indexes of a collection
+     *
+     * estimate: represents the number of films the indexes are expected to return as candidates
+     * candidates: represents the function finding the candidates through the indexes, only called if the plan
+     *             is used
+     */
+    static class Plan {
+        private final int estimate;
+        private final Supplier<Collection<Film>> candidates;
+
+        // EFFECTS: constructs a plan expected to return estimate candidates, found by the given function
+        Plan(int estimate, Supplier<Collection<Film>> candidates) {
+            this.estimate = estimate;
+            this.candidates = candidates;
+        }
+
+        int getEstimate() {
+            return estimate;
+        }
+
+        // EFFECTS: returns the films that may match the query, found through the indexes;
+        //          every film that matches the query is returned
+        Collection<Film> getCandidates() {
+            return candidates.get();
+        }
+    }
+
+    /*
+     * Represents a query matching the film whose property is between two values (both inclusive),
+     * answered from the sorted index of the property
+     *
+     * property: represents the name of the property, as used to find its index
+     * getter: represents the function used to get the property of a film
+     * from: represents the smallest value matched, or null if there is none
+     * to: represents the largest value matched, or null if there is none
+     */
+    private static class Range<K extends Comparable<? super K>> extends FilmQuery {
+        private final String property;
+        private final Function<Film, K> getter;
+        private final K from;
+        private final K to;
+
+        // EFFECTS: constructs a query matching the film whose given property is between from and to
+        Range(String property, Function<Film, K> getter, K from, K to) {
+            this.property = property;
+            this.getter = getter;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean matches(Film film) {
+            K value = getter.apply(film);
+            return value != null && (from == null || value.compareTo(from) >= 0)
+                    && (to == null || value.compareTo(to) <= 0);
+        }
+
+        @Override
+        Plan plan(FilmCollection films) {
+            SortedFilmIndex<K> index = films.getIndex(property);
+            return new Plan(estimate(index.range(from, to).values(), films), () -> index.getRange(from, to));
+        }
+    }
+
+    /*
+     * Represents a query matching the film whose property starts with a prefix,
+     * answered from the sorted index of the property
+     *
+     * property: represents the name of the property, as used to find its index
+     * getter: represents the function used to get the property of a film
+     * prefix: represents the prefix matched
+     */
+    private static class Prefix extends FilmQuery {
+        private final String property;
+        private final Function<Film, String> getter;
+        private final String prefix;
+
+        // EFFECTS: constructs a query matching the film whose given property starts with prefix
+        Prefix(String property, Function<Film, String> getter, String prefix) {
+            this.property = property;
+            this.getter = getter;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean matches(Film film) {
+            String value = getter.apply(film);
+            return value != null && value.startsWith(prefix);
+        }
+
+        // EFFECTS: returns the buckets of the given index whose key starts with the prefix, in key order,
+        //          found one at a time
+        private Iterable<LinkedHashSet<Film>> buckets(SortedFilmIndex<String> index) {
+            return () -> new Iterator<LinkedHashSet<Film>>() {
+                private final Iterator<Map.Entry<String, LinkedHashSet<Film>>> entries =
+                        index.range(prefix, null).entrySet().iterator();
+                private Map.Entry<String, LinkedHashSet<Film>> next = advance();
+
+                // EFFECTS: returns the next bucket whose key starts with the prefix, or null if there is none
+                private Map.Entry<String, LinkedHashSet<Film>> advance() {
+                    if (entries.hasNext()) {
+                        Map.Entry<String, LinkedHashSet<Film>> entry = entries.next();
+                        return entry.getKey().startsWith(prefix) ? entry : null;
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public LinkedHashSet<Film> next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    LinkedHashSet<Film> bucket = next.getValue();
+                    next = advance();
+                    return bucket;
+                }
+            };
+        }
+
+        @Override
+        Plan plan(FilmCollection films) {
+            SortedFilmIndex<String> index = films.getIndex(property);
+            return new Plan(estimate(buckets(index), films), () -> {
+                List<Film> candidates = new ArrayList<>();
+                for (LinkedHashSet<Film> bucket : buckets(index)) {
+                    candidates.addAll(bucket);
+                }
+                return candidates;
+            });
+        }
+    }
+
+    /*
+     * Represents a query matching the film whose property contains a text, ignoring case,
+     * which no index can answer
+     *
+     * getter: represents the function used to get the property of a film
+     * text: represents the text matched, in lower case
+     */
+    private static class Contains extends FilmQuery {
+        private final Function<Film, String> getter;
+        private final String text;
+
+        // EFFECTS: constructs a query matching the film whose given property contains text
+        Contains(Function<Film, String> getter, String text) {
+            this.getter = getter;
+            this.text = text.toLowerCase();
+        }
+
+        @Override
+        public boolean matches(Film film) {
+            String value = getter.apply(film);
+            return value != null && value.toLowerCase().contains(text);
+        }
+
+        @Override
+        Plan plan(FilmCollection films) {
+            return null;
+        }
+    }
+
+    /*
+     * Represents a query matching the film that match every one of a list of queries. Its plan is the plan of the
+     * most selective query that can be answered from an index.
+     *
+     * queries: represents the queries combined
+     */
+    private static class And extends FilmQuery {
+        private final List<FilmQuery> queries;
+
+        // EFFECTS: constructs a query matching the film that match every one of the given queries
+        And(List<FilmQuery> queries) {
+            this.queries = queries;
+        }
+
+        @Override
+        public boolean matches(Film film) {
+            for (FilmQuery q : queries) {
+                if (!q.matches(film)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // EFFECTS: returns the plan of the query with the fewest candidates, planning each query once,
+        //          or null if no query can be answered from an index
+        @Override
+        Plan plan(FilmCollection films) {
+            Plan best = null;
+            for (FilmQuery q : queries) {
+                Plan plan = q.plan(films);
+                if (plan != null && (best == null || plan.getEstimate() < best.getEstimate())) {
+                    best = plan;
+                }
+            }
+            return best;
+        }
+    }
+
+    /*
+     * Represents a query matching the film that match at least one of a list of queries. It can only be answered
+     * from the indexes if each of the queries can, in which case its candidates are theirs combined.
+     *
+     * queries: represents the queries combined
+     */
+    private static class Or extends FilmQuery {
+        private final List<FilmQuery> queries;
+
+        // EFFECTS: constructs a query matching the film that match at least one of the given queries
+        Or(List<FilmQuery> queries) {
+            this.queries = queries;
+        }
+
+        @Override
+        public boolean matches(Film film) {
+            for (FilmQuery q : queries) {
+                if (q.matches(film)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // EFFECTS: returns a plan combining the candidates of the plan of every query, or null if some query cannot
+        //          be answered from an index
+        @Override
+        Plan plan(FilmCollection films) {
+            List<Plan> plans = new ArrayList<>();
+            long count = 0;
+            for (FilmQuery q : queries) {
+                Plan plan = q.plan(films);
+                if (plan == null) {
+                    return null;
+                }
+                plans.add(plan);
+                count += plan.getEstimate();
+            }
+            return new Plan((int) Math.min(count, Integer.MAX_VALUE), () -> {
+                Set<Film> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+                List<Film> ordered = new ArrayList<>();
+                for (Plan plan : plans) {
+                    for (Film f : plan.getCandidates()) {
+                        if (candidates.add(f)) {
+                            ordered.add(f);
+                        }
+                    }
+                }
+                return ordered;
+            });
+        }
+    }
+
+    /*
+     * Represents a query matching the film that do not match another query, which no index can answer
+     *
+     * query: represents the query negated
+     */
+    private static class Not extends FilmQuery {
+        private final FilmQuery query;
+
+        // EFFECTS: constructs a query matching the film that do not match the given query
+        Not(FilmQuery query) {
+            this.query = query;
+        }
+
+        @Override
+        public boolean matches(Film film) {
+            return !query.matches(film);
+        }
+
+        @Override
+        Plan plan(FilmCollection films) {
+            return null;
+        }
+    }
+}
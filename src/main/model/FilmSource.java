@@ -0,0 +1,15 @@
+package model;
+
+/*
+ * Represents a source of film records that have not been decoded yet, such as a saved archive file,
+ * from which a FilmCollection decodes each roll/pack of film the first time it is needed
+ */
+public interface FilmSource {
+
+    // EFFECTS: returns the number of film records in the source
+    int size();
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: decodes the film record at the given index and returns it
+    Film decode(int index);
+}
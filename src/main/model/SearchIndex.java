@@ -0,0 +1,197 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/*
+ * Represents a full-text index over the items of a collection, mapping every word of the text of an item to the
+ * items containing it. Words are compared ignoring case, and each word of a search matches the words of the index
+ * that start with it, so results can be shown while a word is still being typed. The words are kept sorted, so the
+ * words starting with a prefix are found without visiting the whole index, and the index is updated item by item
+ * as the collection changes.
+ *
+ * textFunction: represents the function used to get the pieces of text of an item that are indexed
+ * postings: represents the items containing each word, with the number of times the word appears in each item,
+ *           sorted by word
+ * words: represents the words each item is currently indexed under
+ * order: represents the order in which the items were added, used to rank items with the same score
+ * added: represents the number of items added to the index so far
+ */
+class SearchIndex<T> {
+    private final Function<T, List<String>> textFunction;
+    private final NavigableMap<String, Map<T, Integer>> postings;
+    private final Map<T, List<String>> words;
+    private final Map<T, Long> order;
+    private long added;
+
+    // EFFECTS: constructs an empty index over the pieces of text given by textFunction
+    SearchIndex(Function<T, List<String>> textFunction) {
+        this.textFunction = textFunction;
+        this.postings = new TreeMap<>();
+        this.words = new IdentityHashMap<>();
+        this.order = new IdentityHashMap<>();
+    }
+
+    // EFFECTS: returns the words of the given text, in lower case, in the order they appear
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the given item to the index under the words of its current text
+    synchronized void add(T item) {
+        List<String> tokens = new ArrayList<>();
+        for (String text : textFunction.apply(item)) {
+            tokens.addAll(tokenize(text));
+        }
+        words.put(item, tokens);
+        if (!order.containsKey(item)) {
+            order.put(item, added++);
+        }
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> new IdentityHashMap<>()).merge(item, 1, Integer::sum);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the given item from the index, if it is in the index
+    synchronized void remove(T item) {
+        removeWords(item);
+        order.remove(item);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the given item from the postings of every word it is indexed under
+    private void removeWords(T item) {
+        List<String> tokens = words.remove(item);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Map<T, Integer> items = postings.get(token);
+            if (items != null && items.remove(item) != null && items.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes the given item under the words of its current text, if they changed
+    synchronized void update(T item) {
+        if (!words.containsKey(item)) {
+            return;
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String text : textFunction.apply(item)) {
+            tokens.addAll(tokenize(text));
+        }
+        if (!tokens.equals(words.get(item))) {
+            removeWords(item);
+            add(item);
+        }
+    }
+
+    // EFFECTS: returns the items containing, for every word of the given query, a word starting with it, ranked by
+    //          how well they match: a word matching exactly scores more than a word only starting with the query
+    //          word, and every time a matching word appears adds to the score. Items with the same score are in the
+    //          order they were added. Returns an empty list if the query has no words.
+    synchronized List<T> search(String query) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<T, Integer> scores = null;
+        for (String queryToken : queryTokens) {
+            Map<T, Integer> tokenScores = score(queryToken);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                Map<T, Integer> both = new IdentityHashMap<>();
+                for (Map.Entry<T, Integer> entry : scores.entrySet()) {
+                    Integer score = tokenScores.get(entry.getKey());
+                    if (score != null) {
+                        both.put(entry.getKey(), entry.getValue() + score);
+                    }
+                }
+                scores = both;
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+
+        List<T> hits = new ArrayList<>(scores.keySet());
+        Map<T, Integer> finalScores = scores;
+        hits.sort((a, b) -> {
+            int byScore = Integer.compare(finalScores.get(b), finalScores.get(a));
+            return byScore != 0 ? byScore : Long.compare(order.get(a), order.get(b));
+        });
+        return hits;
+    }
+
+    // EFFECTS: returns true if the given item would be returned by search(query): it contains, for every word of the
+    //          query, a word starting with it; false if the query has no words or the item is not in the index
+    synchronized boolean matches(T item, String query) {
+        List<String> itemTokens = words.get(item);
+        List<String> queryTokens = tokenize(query);
+        if (itemTokens == null || queryTokens.isEmpty()) {
+            return false;
+        }
+        for (String queryToken : queryTokens) {
+            boolean found = false;
+            for (String token : itemTokens) {
+                if (token.startsWith(queryToken)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: returns the score of each item containing a word starting with the given query word; each time
+    //          the word itself appears scores 2, and each time a longer word starting with it appears scores 1
+    private Map<T, Integer> score(String queryToken) {
+        Map<T, Integer> scores = new IdentityHashMap<>();
+        for (Map.Entry<String, Map<T, Integer>> entry : postings.tailMap(queryToken, true).entrySet()) {
+            if (!entry.getKey().startsWith(queryToken)) {
+                break;
+            }
+            int weight = entry.getKey().equals(queryToken) ? 2 : 1;
+            for (Map.Entry<T, Integer> posting : entry.getValue().entrySet()) {
+                scores.merge(posting.getKey(), weight * posting.getValue(), Integer::sum);
+            }
+        }
+        return scores;
+    }
+
+    // EFFECTS: returns the number of distinct words in the index
+    synchronized int getWordCount() {
+        return postings.size();
+    }
+
+    // EFFECTS: returns the words the given item is indexed under, or an empty list if it is not in the index
+    synchronized List<String> getWords(T item) {
+        List<String> tokens = words.get(item);
+        return tokens == null ? Collections.emptyList() : Collections.unmodifiableList(tokens);
+    }
+}
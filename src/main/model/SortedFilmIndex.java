@@ -0,0 +1,67 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/*
+ * Represents a secondary index over a collection of film that keeps its keys in sorted order,
+ * so that the films with a property in a given range can be found without visiting every film.
+ *
+ * sortedBuckets: represents the films in the index, grouped and sorted by their indexed property
+ */
+class SortedFilmIndex<K extends Comparable<? super K>> extends FilmIndex<K> {
+    private final NavigableMap<K, LinkedHashSet<Film>> sortedBuckets;
+
+    // EFFECTS: constructs an empty sorted index over the property given by keyFunction
+    SortedFilmIndex(Function<Film, K> keyFunction) {
+        this(keyFunction, new TreeMap<>());
+    }
+
+    // EFFECTS: constructs an empty sorted index that stores its films in the given map
+    private SortedFilmIndex(Function<Film, K> keyFunction, TreeMap<K, LinkedHashSet<Film>> buckets) {
+        super(keyFunction, buckets);
+        this.sortedBuckets = buckets;
+    }
+
+    // EFFECTS: returns the buckets with keys between from and to (both inclusive), in key order;
+    //          a null bound leaves that end of the range open
+    NavigableMap<K, LinkedHashSet<Film>> range(K from, K to) {
+        if (from != null && to != null) {
+            if (from.compareTo(to) > 0) {
+                return new TreeMap<>();
+            }
+            return sortedBuckets.subMap(from, true, to, true);
+        } else if (from != null) {
+            return sortedBuckets.tailMap(from, true);
+        } else if (to != null) {
+            return sortedBuckets.headMap(to, true);
+        }
+        return sortedBuckets;
+    }
+
+    // EFFECTS: returns a list of the films with keys between from and to (both inclusive), in key order;
+    //          a null bound leaves that end of the range open
+    ArrayList<Film> getRange(K from, K to) {
+        ArrayList<Film> filtered = new ArrayList<>();
+        for (LinkedHashSet<Film> bucket : range(from, to).values()) {
+            filtered.addAll(bucket);
+        }
+        return filtered;
+    }
+
+    // EFFECTS: returns a list of the films with keys between from and to (both inclusive), in key order, and in the
+    //          given order among films with the same key; a null bound leaves that end of the range open
+    ArrayList<Film> getRange(K from, K to, Comparator<? super Film> order) {
+        ArrayList<Film> filtered = new ArrayList<>();
+        for (LinkedHashSet<Film> bucket : range(from, to).values()) {
+            int start = filtered.size();
+            filtered.addAll(bucket);
+            filtered.subList(start, filtered.size()).sort(order);
+        }
+        return filtered;
+    }
+}
@@ -0,0 +1,39 @@
+package persistence;
+
+import model.Archive;
+
+import java.io.IOException;
+
+/*
+ * Is used to convert a saved archive from one format to another, for example from a .json save file
+ * to a binary .aarc save file.
+ */
+public class ArchiveConverter {
+
+    // EFFECTS: reads an archive with the given reader and writes it with the given writer;
+    //          throws IOException if the archive cannot be read or written
+    public static void convert(ArchiveReader reader, ArchiveWriter writer) throws IOException {
+        Archive a = reader.read();
+        writer.open();
+        try {
+            writer.write(a);
+        } finally {
+            writer.close();
+        }
+    }
+
+    // EFFECTS: converts the archive at source to destination, picking the format of each file
+    //          from its extension; throws IOException if the archive cannot be read or written
+    public static void convert(String source, String destination) throws IOException {
+        convert(ArchiveFormat.forPath(source).reader(source), ArchiveFormat.forPath(destination).writer(destination));
+    }
+
+    // EFFECTS: converts the archive given by the first argument into the file given by the second argument
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: ArchiveConverter <source file> <destination file>");
+            return;
+        }
+        convert(args[0], args[1]);
+    }
+}
@@ -0,0 +1,96 @@
+package persistence;
+
+import model.ArchiveSnapshot;
+
+import java.io.IOException;
+
+/*
+ * Represents the formats that an archive can be saved in, and is used to pick the reader and writer
+ * for a file based on its extension.
+ *
+ * JSON: represents the human readable .json format, read and written one record at a time
+ * BINARY: represents the compact binary .aarc format, which is faster to read and write
+ * extension: represents the file extension used by files in this format
+ */
+public enum ArchiveFormat {
+    JSON(".json") {
+        @Override
+        public ArchiveReader reader(String source) {
+            return new JsonReader(source)::readStream;
+        }
+
+        @Override
+        public ArchiveWriter writer(String destination) {
+            JsonWriter writer = new JsonWriter(destination);
+            return new ArchiveWriter() {
+                @Override
+                public void open() throws IOException {
+                    writer.open();
+                }
+
+                @Override
+                public void write(ArchiveSnapshot s) {
+                    writer.writeStream(s);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    writer.close();
+                }
+            };
+        }
+    },
+    BINARY(".aarc") {
+        @Override
+        public ArchiveReader reader(String source) {
+            return new BinaryReader(source);
+        }
+
+        @Override
+        public ArchiveReader lazyReader(String source) {
+            return new MappedBinaryReader(source, true);
+        }
+
+        @Override
+        public ArchiveWriter writer(String destination) {
+            return new BinaryWriter(destination);
+        }
+    };
+
+    private final String extension;
+
+    // EFFECTS: constructs a format for files with the given extension
+    ArchiveFormat(String extension) {
+        this.extension = extension;
+    }
+
+    // EFFECTS: returns the file extension used by files in this format
+    public String getExtension() {
+        return extension;
+    }
+
+    // EFFECTS: returns a reader that reads an archive in this format from source
+    public abstract ArchiveReader reader(String source);
+
+    // EFFECTS: returns a reader that reads an archive in this format from source, decoding each film only when
+    //          it is first needed if the format allows it, and decoding everything up front otherwise. The reader
+    //          keeps no hold on the file once it has been read, so that the file can be replaced while the archive
+    //          is still in use
+    public ArchiveReader lazyReader(String source) {
+        return reader(source);
+    }
+
+    // EFFECTS: returns a writer that writes an archive in this format to destination
+    public abstract ArchiveWriter writer(String destination);
+
+    // EFFECTS: returns the format of the file at the given path, based on its extension;
+    //          files with an unknown extension are treated as JSON
+    public static ArchiveFormat forPath(String path) {
+        for (ArchiveFormat format : values()) {
+            if (path.toLowerCase().endsWith(format.extension)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,614 @@
+package persistence;
+
+import model.Archive;
+import model.ArchiveSnapshot;
+import model.Camera;
+import model.CollectionObserver;
+import model.Film;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Represents a save file made of a snapshot of the whole archive, and a journal of every change made to the
+ * archive since the snapshot was written. Each change made to an attached archive is recorded as one line of JSON,
+ * and saving only appends the changes made since the last save to the journal, so the cost of saving depends on
+ * how much was changed rather than on the size of the archive. Once the journal grows past half the size of the
+ * snapshot, the next save writes a new snapshot and starts an empty journal instead.
+ *
+ * Saves are written on a background thread, from copies of the archive and journal entries taken when the save is
+ * started. The snapshot and a rewritten journal are written to a temporary file that is synced to the disk and then
+ * renamed over the old file, so a crash during a save leaves either the old or the new file, never a partial one.
+ *
+ * The first line of the journal records a hash of the contents of the snapshot it belongs to, so that a journal
+ * left over from an older snapshot is never replayed on a newer one, even if the newer snapshot has the same size
+ * and modification time. Journals written before the hash was recorded are matched by the size and modification
+ * time of the snapshot instead.
+ *
+ * JOURNAL_EXTENSION: represents the extension added to the path of the snapshot to get the path of the journal
+ * TEMP_EXTENSION: represents the extension of the files the snapshot and journal are written to before they
+ *                 replace the snapshot and journal
+ * snapshotPath: represents the location of the snapshot
+ * journalPath: represents the location of the journal
+ * format: represents the format the snapshot is saved in
+ * archive: represents the archive whose changes are being recorded, or null if no archive is attached
+ * pending: represents the journal entries of the changes that have not been saved yet
+ * journalBytes: represents the size of the journal on disk, or 0 if there is no journal for the current snapshot
+ * needsSnapshot: represents whether the next save must write a new snapshot
+ * writeFailed: represents whether a write has failed since the last snapshot was written, in which case the
+ *              journal on disk no longer matches the changes recorded since, and only a new snapshot can be written
+ * snapshotHash: represents the hash of the contents of the snapshot, or null if it has not been computed yet
+ * executor: represents the thread that writes the snapshot and the journal
+ * queued: represents the save that is waiting to be written, or null if there is none
+ * filmObserver: represents the observer that records changes to the film collection of the archive
+ * cameraObserver: represents the observer that records changes to the camera collection of the archive
+ */
+public class ArchiveJournal {
+    public static final String JOURNAL_EXTENSION = ".journal";
+    public static final String TEMP_EXTENSION = ".tmp";
+
+    private final String snapshotPath;
+    private final String journalPath;
+    private final ArchiveFormat format;
+    private Archive archive;
+    private final ArrayList<String> pending;
+    private volatile long journalBytes;
+    private volatile boolean needsSnapshot;
+    private boolean writeFailed;
+    private volatile String snapshotHash;
+    private final ExecutorService executor;
+    private SaveRequest queued;
+    private final CollectionObserver<Film> filmObserver;
+    private final CollectionObserver<Camera> cameraObserver;
+
+    // EFFECTS: constructs a journal for the snapshot at the given path, saved in the format given by its extension
+    public ArchiveJournal(String snapshotPath) {
+        this.snapshotPath = snapshotPath;
+        this.journalPath = snapshotPath + JOURNAL_EXTENSION;
+        this.format = ArchiveFormat.forPath(snapshotPath);
+        this.pending = new ArrayList<>();
+        this.needsSnapshot = true;
+        this.filmObserver = new FilmObserver();
+        this.cameraObserver = new CameraObserver();
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "Archive save");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // EFFECTS: returns the location of the journal
+    public String getJournalPath() {
+        return journalPath;
+    }
+
+    // EFFECTS: returns the number of changes that have not been saved yet
+    public int getPendingChanges() {
+        return pending.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the snapshot, replays the journal on it, and starts recording the changes made to it;
+    //          if lazy is true, film is only decoded from the snapshot when it is first needed, if the format
+    //          allows it; throws IOException if the snapshot or journal cannot be read, in which case the archive
+    //          that was attached before stays attached
+    public Archive load(boolean lazy) throws IOException {
+        flush();
+        ArchiveReader reader = lazy ? format.lazyReader(snapshotPath) : format.reader(snapshotPath);
+        Archive a = reader.read();
+        snapshotHash = null;
+        long replayed = replay(a);
+
+        detach();
+        observe(a);
+        journalBytes = Math.max(replayed, 0);
+        needsSnapshot = replayed == -1;
+        writeFailed = false;
+        return a;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts recording the changes made to the given archive, which has not been read from the snapshot,
+    //          so the next save writes a new snapshot
+    public void attach(Archive a) {
+        detach();
+        observe(a);
+        needsSnapshot = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops recording the changes made to the attached archive, discarding any unsaved changes
+    public void detach() {
+        if (archive != null) {
+            archive.filmCollection.removeObserver(filmObserver);
+            archive.cameraCollection.removeObserver(cameraObserver);
+            archive = null;
+        }
+        pending.clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the changes made to the given archive from now on
+    private void observe(Archive a) {
+        archive = a;
+        a.filmCollection.addObserver(filmObserver);
+        a.cameraCollection.addObserver(cameraObserver);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts saving the changes made to the attached archive since the last save in the background,
+    //          either by appending them to the journal, or by writing a new snapshot if one is needed or the
+    //          journal has grown too large, and returns a future that completes once they have been written;
+    //          saves started while an earlier save is still waiting to be written are written together with it.
+    //          The future completes exceptionally with an IOException if the snapshot or journal cannot be
+    //          written, in which case the next save writes a new snapshot; a save of changes only that was started
+    //          before a failed write finished also fails, as its changes cannot be appended to the journal.
+    public CompletableFuture<Void> save() {
+        long pendingBytes = 0;
+        for (String entry : pending) {
+            pendingBytes += entry.getBytes(StandardCharsets.UTF_8).length + 1;
+        }
+
+        ArchiveSnapshot snapshot = null;
+        if (needsSnapshot || journalBytes + pendingBytes > Paths.get(snapshotPath).toFile().length() / 2) {
+            snapshot = archive.snapshot();
+            needsSnapshot = false;
+        } else if (pending.isEmpty()) {
+            synchronized (this) {
+                return queued == null ? CompletableFuture.completedFuture(null) : queued.done;
+            }
+        }
+
+        // the changes made so far are already part of a new snapshot
+        ArrayList<String> entries = snapshot == null ? new ArrayList<>(pending) : new ArrayList<>();
+        pending.clear();
+        synchronized (this) {
+            if (queued == null) {
+                queued = new SaveRequest();
+                executor.execute(this::writeQueued);
+            }
+            queued.add(snapshot, entries);
+            return queued.done;
+        }
+    }
+
+    // EFFECTS: waits until every save that has been started has been written
+    public void flush() {
+        try {
+            executor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // the empty task cannot fail
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the save that is waiting to be written, on the save thread; once a write has failed, saves
+    //          of changes only fail without writing anything until a new snapshot has been written
+    private void writeQueued() {
+        SaveRequest request;
+        synchronized (this) {
+            request = queued;
+            queued = null;
+        }
+
+        try {
+            if (request.snapshot != null) {
+                writeSnapshot(request.snapshot);
+                writeFailed = false;
+                writeJournal(request.entries);
+            } else if (writeFailed) {
+                throw new IOException("An earlier save failed, a new snapshot must be written first");
+            } else if (journalBytes == 0) {
+                writeJournal(request.entries);
+            } else {
+                appendJournal(request.entries);
+            }
+            request.done.complete(null);
+        } catch (IOException | RuntimeException e) {
+            writeFailed = true;
+            needsSnapshot = true;
+            request.done.completeExceptionally(e);
+        }
+    }
+
+    // EFFECTS: replaces the snapshot with the given archive; if it cannot be written completely, the snapshot is
+    //          left as it was and IOException is thrown
+    private void writeSnapshot(ArchiveSnapshot snapshot) throws IOException {
+        Path temp = Paths.get(snapshotPath + TEMP_EXTENSION);
+        ArchiveWriter writer = format.writer(temp.toString());
+        try {
+            writer.open();
+            try {
+                writer.write(snapshot);
+            } finally {
+                writer.close();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        String hash = hash(temp);
+        replace(temp, Paths.get(snapshotPath));
+        snapshotHash = hash;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the journal with a journal for the current snapshot containing the given entries
+    private void writeJournal(List<String> entries) throws IOException {
+        byte[] bytes = toBytes(snapshotHeader().toString(), entries);
+        Path temp = Paths.get(journalPath + TEMP_EXTENSION);
+        Files.write(temp, bytes);
+        replace(temp, Paths.get(journalPath));
+        journalBytes = bytes.length;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the given entries to the journal, and waits until they have reached the disk
+    private void appendJournal(List<String> entries) throws IOException {
+        byte[] bytes = toBytes(null, entries);
+        try (FileChannel channel = FileChannel.open(Paths.get(journalPath),
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        journalBytes += bytes.length;
+    }
+
+    // EFFECTS: returns the given header, if any, followed by the given entries, one per line
+    private static byte[] toBytes(String header, List<String> entries) {
+        StringBuilder text = new StringBuilder();
+        if (header != null) {
+            text.append(header).append('\n');
+        }
+        for (String entry : entries) {
+            text.append(entry).append('\n');
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: waits until the given temporary file has reached the disk, then renames it to the given target in a
+    //          single step, so that the target is either left as it was or fully replaced, even after a crash
+    private static void replace(Path temp, Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        Path directory = target.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not every platform allows directories to be synced, the rename is still complete
+        }
+    }
+
+    // EFFECTS: returns the header that identifies the current snapshot
+    private JSONObject snapshotHeader() throws IOException {
+        JSONObject header = new JSONObject();
+        header.put("snapshot hash", snapshotHash());
+        return header;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the hash of the contents of the current snapshot, computing it if it is not known yet
+    private String snapshotHash() throws IOException {
+        String hash = snapshotHash;
+        if (hash == null) {
+            hash = hash(Paths.get(snapshotPath));
+            snapshotHash = hash;
+        }
+        return hash;
+    }
+
+    // EFFECTS: returns the SHA-256 hash of the contents of the given file, encoded as Base64
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Every Java platform supports SHA-256", e);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    // MODIFIES: a
+    // EFFECTS: applies the changes recorded in the journal to the given archive, if the journal belongs to the
+    //          current snapshot, and returns the size of the journal, or 0 if there is no journal for the current
+    //          snapshot; if the journal ends in an entry that cannot be read, the entries before it are applied
+    //          and -1 is returned
+    private long replay(Archive a) throws IOException {
+        Path journal = Paths.get(journalPath);
+        if (!Files.exists(journal)) {
+            return 0;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !matchesSnapshot(new JSONObject(header))) {
+                return 0;
+            }
+
+            JsonReader parser = new JsonReader(snapshotPath);
+            parser.useCameras(a.cameraCollection);
+            String line = reader.readLine();
+            while (line != null) {
+                try {
+                    apply(a, parser, new JSONObject(line));
+                } catch (JSONException | IndexOutOfBoundsException e) {
+                    return -1;
+                }
+                line = reader.readLine();
+            }
+        } catch (JSONException e) {
+            return 0;
+        }
+        return Files.size(journal);
+    }
+
+    // EFFECTS: returns true if the given journal header identifies the current snapshot, by the hash of its
+    //          contents, or by its size and modification time if the header was written before hashes were recorded
+    private boolean matchesSnapshot(JSONObject header) throws IOException {
+        if (header.has("snapshot hash")) {
+            return header.getString("snapshot hash").equals(snapshotHash());
+        }
+        Path snapshot = Paths.get(snapshotPath);
+        return header.optLong("snapshot size", -1) == Files.size(snapshot)
+                && header.optLong("snapshot modified", -1) == Files.getLastModifiedTime(snapshot).toMillis();
+    }
+
+    // MODIFIES: a, parser
+    // EFFECTS: applies the change recorded in the given journal entry to the archive, and has the parser resolve
+    //          cameras against the camera collection again after a change to it;
+    //          throws JSONException if the entry cannot be read
+    private void apply(Archive a, JsonReader parser, JSONObject entry) {
+        String op = entry.getString("op");
+        if ("add film".equals(op)) {
+            a.filmCollection.addFilm(parser.parseFilm(entry.getJSONObject("film")));
+        } else if ("remove film".equals(op)) {
+            a.filmCollection.removeFilm(a.filmCollection.getRoll(entry.getInt("index")));
+        } else if ("edit film".equals(op)) {
+            editFilm(a.filmCollection.getRoll(entry.getInt("index")), parser, entry);
+        } else if ("add camera".equals(op)) {
+            JSONObject camera = entry.getJSONObject("camera");
+            a.cameraCollection.addCamera(new Camera(camera.getString("name"),
+                    camera.getString("film type"), camera.getString("manufacturer")));
+            parser.useCameras(a.cameraCollection);
+        } else if ("remove camera".equals(op)) {
+            a.cameraCollection.removeCamera(a.cameraCollection.getCamera(entry.getInt("index")));
+            parser.useCameras(a.cameraCollection);
+        } else if ("edit camera".equals(op)) {
+            editCamera(a.cameraCollection.getCamera(entry.getInt("index")), entry);
+            parser.useCameras(a.cameraCollection);
+        } else {
+            throw new JSONException("Unknown journal operation " + op);
+        }
+    }
+
+    // MODIFIES: f
+    // EFFECTS: sets the property of the film recorded in the given journal entry
+    private void editFilm(Film f, JsonReader parser, JSONObject entry) {
+        String property = entry.getString("property");
+        String value = entry.isNull("value") ? null : entry.get("value").toString();
+        if ("name".equals(property)) {
+            f.setName(value);
+        } else if ("iso".equals(property)) {
+            f.setIso(entry.getInt("value"));
+        } else if ("type".equals(property)) {
+            f.setType(value);
+        } else if ("brand".equals(property)) {
+            f.setBrand(value);
+        } else if ("develop location".equals(property)) {
+            f.setDevelopLocation(value);
+        } else if ("directory".equals(property)) {
+            f.setDirectory(value);
+        } else if ("camera".equals(property)) {
+            f.setCamera(parser.parseCameraReference(entry.get("value")));
+        } else if ("expiry".equals(property)) {
+            LocalDate date = parseDate(parser, entry);
+            f.setExpiry(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        } else if ("develop date".equals(property)) {
+            LocalDate date = parseDate(parser, entry);
+            f.setDevelopDate(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        }
+    }
+
+    // EFFECTS: returns the date recorded as the value of the given journal entry;
+    //          throws JSONException if the entry has no date
+    private LocalDate parseDate(JsonReader parser, JSONObject entry) {
+        LocalDate date = parser.addDateToFilm(entry.getJSONObject("value"));
+        if (date == null) {
+            throw new JSONException("Journal entry has no date");
+        }
+        return date;
+    }
+
+    // MODIFIES: c
+    // EFFECTS: sets the property of the camera recorded in the given journal entry
+    private void editCamera(Camera c, JSONObject entry) {
+        String property = entry.getString("property");
+        String value = entry.isNull("value") ? null : entry.getString("value");
+        if ("name".equals(property)) {
+            c.setName(value);
+        } else if ("film type".equals(property)) {
+            c.setFilmType(value);
+        } else if ("manufacturer".equals(property)) {
+            c.setManufacturer(value);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a journal entry for the given operation, with the given properties
+    private void record(String op, Object... properties) {
+        JSONObject entry = new JSONObject();
+        entry.put("op", op);
+        for (int i = 0; i < properties.length; i += 2) {
+            entry.put((String) properties[i], properties[i + 1] == null ? JSONObject.NULL : properties[i + 1]);
+        }
+        pending.add(entry.toString());
+    }
+
+    // EFFECTS: returns the index of the given camera in the camera collection, or a copy of the camera
+    //          if it is not in the camera collection
+    private Object cameraReference(Camera camera) {
+        int index = archive.cameraCollection.indexOf(camera);
+        if (index == -1) {
+            return camera.toJson();
+        }
+        return index;
+    }
+
+    // EFFECTS: returns the value of the given property of the film, as it is recorded in the journal
+    private Object filmValue(Film f, String property) {
+        if ("name".equals(property)) {
+            return f.getName();
+        } else if ("iso".equals(property)) {
+            return f.getIso();
+        } else if ("type".equals(property)) {
+            return f.getType();
+        } else if ("brand".equals(property)) {
+            return f.getBrand();
+        } else if ("develop location".equals(property)) {
+            return f.getDevelopLocation();
+        } else if ("directory".equals(property)) {
+            return f.getDirectory();
+        } else if ("expiry".equals(property)) {
+            return f.dateToJson(f.getExpiry());
+        } else if ("develop date".equals(property)) {
+            return f.dateToJson(f.getDevelopDate());
+        }
+        return cameraReference(f.getCamera());
+    }
+
+    /*
+     * Records the changes made to the film collection of the attached archive
+     */
+    private class FilmObserver implements CollectionObserver<Film> {
+
+        // MODIFIES: ArchiveJournal.this
+        // EFFECTS: records that the given film was added
+        @Override
+        public void itemAdded(Film film, int index) {
+            record("add film", "film", film.toJson(archive.getCameraIds()));
+        }
+
+        // MODIFIES: ArchiveJournal.this
+        // EFFECTS: records that the film at the given index was removed
+        @Override
+        public void itemRemoved(Film film, int index) {
+            record("remove film", "index", index);
+        }
+
+        // MODIFIES: ArchiveJournal.this
+        // EFFECTS: records the new value of the given property of the film; changes made to a camera in the
+        //          camera collection are recorded once for the camera rather than once for each film using it
+        @Override
+        public void itemChanged(Film film, String property) {
+            if (property.startsWith("camera ")) {
+                if (archive.cameraCollection.contains(film.getCamera())) {
+                    return;
+                }
+                property = "camera";
+            }
+            record("edit film", "index", archive.filmCollection.indexOf(film),
+                    "property", property, "value", filmValue(film, property));
+        }
+    }
+
+    /*
+     * Records the changes made to the camera collection of the attached archive
+     */
+    private class CameraObserver implements CollectionObserver<Camera> {
+
+        // MODIFIES: ArchiveJournal.this
+        // EFFECTS: records that the given camera was added
+        @Override
+        public void itemAdded(Camera camera, int index) {
+            record("add camera", "camera", camera.toJson());
+        }
+
+        // MODIFIES: ArchiveJournal.this
+        // EFFECTS: records that the camera at the given index was removed
+        @Override
+        public void itemRemoved(Camera camera, int index) {
+            record("remove camera", "index", index);
+        }
+
+        // MODIFIES: ArchiveJournal.this
+        // EFFECTS: records the new value of the given property of the camera
+        @Override
+        public void itemChanged(Camera camera, String property) {
+            String value;
+            if ("name".equals(property)) {
+                value = camera.getName();
+            } else if ("film type".equals(property)) {
+                value = camera.getFilmType();
+            } else {
+                value = camera.getManufacturer();
+            }
+            record("edit camera", "index", archive.cameraCollection.indexOf(camera),
+                    "property", property, "value", value);
+        }
+    }
+
+    /*
+     * Represents a save waiting to be written
+     *
+     * snapshot: represents the snapshot of the archive to write as the new snapshot, or null to keep the snapshot
+     * entries: represents the journal entries to write after the snapshot
+     * done: represents the future completed once the save has been written
+     */
+    private static class SaveRequest {
+        private ArchiveSnapshot snapshot;
+        private final ArrayList<String> entries = new ArrayList<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        // MODIFIES: this
+        // EFFECTS: adds a later save to this one; a new snapshot replaces the earlier snapshot and entries
+        void add(ArchiveSnapshot newSnapshot, List<String> newEntries) {
+            if (newSnapshot != null) {
+                snapshot = newSnapshot;
+                entries.clear();
+            }
+            entries.addAll(newEntries);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package persistence;
+
+import model.Archive;
+
+import java.io.IOException;
+
+/*
+ * Represents a reader that creates an archive from a saved file, regardless of the format of the file
+ */
+public interface ArchiveReader {
+
+    // EFFECTS: reads archive from the source and returns it;
+    //          throws IOException if an error occurs reading data from the source
+    Archive read() throws IOException;
+}
@@ -0,0 +1,32 @@
+package persistence;
+
+import model.Archive;
+import model.ArchiveSnapshot;
+
+import java.io.IOException;
+
+/*
+ * Represents a writer that saves an archive to a file, regardless of the format of the file
+ */
+public interface ArchiveWriter {
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws IOException if the destination cannot be opened for writing
+    void open() throws IOException;
+
+    // MODIFIES: this
+    // EFFECTS: writes the given snapshot of an archive to the destination;
+    //          throws IOException if an error occurs writing data to the destination
+    void write(ArchiveSnapshot s) throws IOException;
+
+    // MODIFIES: this
+    // EFFECTS: writes the given archive to the destination;
+    //          throws IOException if an error occurs writing data to the destination
+    default void write(Archive a) throws IOException {
+        write(a.view());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer; throws IOException if the written data cannot be flushed
+    void close() throws IOException;
+}
@@ -0,0 +1,143 @@
+package persistence;
+
+import model.Camera;
+import model.Film;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+
+/*
+ * Describes the binary archive format shared by BinaryReader and BinaryWriter.
+ *
+ * A binary archive is laid out as:
+ *   - the MAGIC number and the format VERSION
+ *   - a dictionary of the strings that repeat across records (film brand, film type, camera film type,
+ *     camera manufacturer, and develop location), which records refer to by their index
+ *   - the number of cameras in the camera collection, and the number of extra cameras that are only used by film,
+ *     followed by every camera
+ *   - the number of film, followed by every film, each prefixed by the length of its record in bytes,
+ *     so that a record can be skipped without being decoded
+ *
+ * MAGIC: represents the first four bytes of every binary archive ("AARC")
+ * VERSION: represents the version of the binary format
+ * NONE: represents a reference to a missing string or camera
+ * NO_DATE: represents a missing date
+ */
+final class BinaryFormat {
+    static final int MAGIC = 0x41415243;
+    static final int VERSION = 1;
+    static final int NONE = -1;
+    static final long NO_DATE = Long.MIN_VALUE;
+
+    private BinaryFormat() {
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the given camera, using the dictionary for its film type and manufacturer
+    static void writeCamera(DataOutput out, Camera c, Map<String, Integer> dictionary) throws IOException {
+        writeString(out, c.getName());
+        writeReference(out, c.getFilmType(), dictionary);
+        writeReference(out, c.getManufacturer(), dictionary);
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads a camera, looking up its film type and manufacturer in the dictionary
+    static Camera readCamera(DataInput in, String[] dictionary) throws IOException {
+        String name = readString(in);
+        String filmType = readReference(in, dictionary);
+        String manufacturer = readReference(in, dictionary);
+        return new Camera(name, filmType, manufacturer);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the record of the given film, using the dictionary for its repeated strings,
+    //          and the index of its camera in the written cameras
+    static void writeFilm(DataOutput out, Film f, Map<String, Integer> dictionary,
+                          Map<Camera, Integer> cameraIds) throws IOException {
+        writeString(out, f.getName());
+        out.writeInt(f.getIso());
+        writeReference(out, f.getType(), dictionary);
+        Integer cameraId = cameraIds.get(f.getCamera());
+        out.writeInt(cameraId == null ? NONE : cameraId);
+        writeReference(out, f.getBrand(), dictionary);
+        writeDate(out, f.getExpiry());
+        writeDate(out, f.getDevelopDate());
+        writeReference(out, f.getDevelopLocation(), dictionary);
+        writeString(out, f.getDirectory());
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads the record of a film, looking up its repeated strings in the dictionary and its camera
+    //          in the cameras that have been read
+    static Film readFilm(DataInput in, String[] dictionary, Camera[] cameras) throws IOException {
+        String name = readString(in);
+        int iso = in.readInt();
+        String type = readReference(in, dictionary);
+        int cameraId = in.readInt();
+        String brand = readReference(in, dictionary);
+        Film film = new Film(name, iso, type, cameraId == NONE ? null : cameras[cameraId], brand);
+
+        LocalDate expiry = readDate(in);
+        if (expiry != null) {
+            film.setExpiry(expiry.getYear(), expiry.getMonthValue(), expiry.getDayOfMonth());
+        }
+        LocalDate developDate = readDate(in);
+        if (developDate != null) {
+            film.setDevelopDate(developDate.getYear(), developDate.getMonthValue(), developDate.getDayOfMonth());
+        }
+        String developLocation = readReference(in, dictionary);
+        if (developLocation != null) {
+            film.setDevelopLocation(developLocation);
+        }
+        String directory = readString(in);
+        if (directory != null) {
+            film.setDirectory(directory);
+        }
+        return film;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the index of the given string in the dictionary, or NONE if the string is null
+    private static void writeReference(DataOutput out, String s, Map<String, Integer> dictionary)
+            throws IOException {
+        out.writeInt(s == null ? NONE : dictionary.get(s));
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads the index of a string and returns the string from the dictionary, or null if it is NONE
+    private static String readReference(DataInput in, String[] dictionary) throws IOException {
+        int index = in.readInt();
+        return index == NONE ? null : dictionary[index];
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the given string, which may be null
+    static void writeString(DataOutput out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) {
+            out.writeUTF(s);
+        }
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads a string that may be null
+    static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the given date as a day count, or NO_DATE if the date is null
+    private static void writeDate(DataOutput out, LocalDate date) throws IOException {
+        out.writeLong(date == null ? NO_DATE : date.toEpochDay());
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads a date, returning null if it is NO_DATE
+    private static LocalDate readDate(DataInput in) throws IOException {
+        long day = in.readLong();
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+}
@@ -0,0 +1,85 @@
+package persistence;
+
+import model.Archive;
+import model.Camera;
+import model.CameraCollection;
+import model.FilmCollection;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/*
+ * Is used to read an archive from a binary file written by BinaryWriter,
+ * laid out as described in BinaryFormat.
+ *
+ * source: represents the location of the file that is being read from
+ */
+public class BinaryReader implements ArchiveReader {
+    private final String source;
+
+    // EFFECTS: constructs reader to read from source file
+    public BinaryReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: reads archive from file and returns it;
+    //          throws IOException if an error occurs reading data from file, or if the file is not a binary archive
+    @Override
+    public Archive read() throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(Paths.get(source))))) {
+            readHeader(in);
+            String[] dictionary = readDictionary(in);
+
+            Archive a = new Archive(new CameraCollection(), new FilmCollection());
+            Camera[] cameras = readCameras(in, dictionary, a.cameraCollection);
+
+            int filmCount = in.readInt();
+            for (int i = 0; i < filmCount; i++) {
+                in.readInt();
+                a.filmCollection.addFilm(BinaryFormat.readFilm(in, dictionary, cameras));
+            }
+            return a;
+        }
+    }
+
+    // EFFECTS: reads the magic number and version of the file;
+    //          throws IOException if the file is not a binary archive of a supported version
+    static void readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != BinaryFormat.MAGIC) {
+            throw new IOException("Not a binary archive file");
+        }
+        int version = in.readInt();
+        if (version != BinaryFormat.VERSION) {
+            throw new IOException("Unsupported binary archive version " + version);
+        }
+    }
+
+    // EFFECTS: reads the dictionary of repeated strings and returns it
+    static String[] readDictionary(DataInputStream in) throws IOException {
+        String[] dictionary = new String[in.readInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = in.readUTF();
+        }
+        return dictionary;
+    }
+
+    // MODIFIES: cameraCollection
+    // EFFECTS: reads every camera in the file and returns them in the order they were written,
+    //          adding the cameras that belong to the camera collection to cameraCollection
+    static Camera[] readCameras(DataInputStream in, String[] dictionary, CameraCollection cameraCollection)
+            throws IOException {
+        int collectionSize = in.readInt();
+        Camera[] cameras = new Camera[collectionSize + in.readInt()];
+        for (int i = 0; i < cameras.length; i++) {
+            cameras[i] = BinaryFormat.readCamera(in, dictionary);
+            if (i < collectionSize) {
+                cameraCollection.addCamera(cameras[i]);
+            }
+        }
+        return cameras;
+    }
+}
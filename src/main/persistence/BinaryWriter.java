@@ -0,0 +1,121 @@
+package persistence;
+
+import model.ArchiveSnapshot;
+import model.Camera;
+import model.Film;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * This class is used to write the contents of an Archive to a compact binary file,
+ * laid out as described in BinaryFormat.
+ *
+ * destination: represents the location of the binary file
+ * out: represents the stream used to write to the file
+ */
+public class BinaryWriter implements ArchiveWriter {
+    private final String destination;
+    private DataOutputStream out;
+
+    // EFFECTS: constructs writer to write to destination file
+    public BinaryWriter(String destination) {
+        this.destination = destination;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws IOException if destination file cannot be opened for writing
+    @Override
+    public void open() throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(destination)));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes binary representation of given archive snapshot to file;
+    //          throws IOException if an error occurs writing to the file
+    @Override
+    public void write(ArchiveSnapshot a) throws IOException {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        Map<Camera, Integer> cameraIds = new IdentityHashMap<>();
+        ArrayList<Camera> cameras = new ArrayList<>();
+        for (Camera c : a.getCameras()) {
+            addCamera(c, cameras, cameraIds, dictionary);
+        }
+        int collectionSize = cameras.size();
+        for (Film f : a.getFilm()) {
+            if (f.getCamera() != null) {
+                addCamera(f.getCamera(), cameras, cameraIds, dictionary);
+            }
+            addToDictionary(f.getType(), dictionary);
+            addToDictionary(f.getBrand(), dictionary);
+            addToDictionary(f.getDevelopLocation(), dictionary);
+        }
+
+        out.writeInt(BinaryFormat.MAGIC);
+        out.writeInt(BinaryFormat.VERSION);
+
+        out.writeInt(dictionary.size());
+        for (String s : dictionary.keySet()) {
+            out.writeUTF(s);
+        }
+
+        out.writeInt(collectionSize);
+        out.writeInt(cameras.size() - collectionSize);
+        for (Camera c : cameras) {
+            BinaryFormat.writeCamera(out, c, dictionary);
+        }
+
+        writeFilm(a, dictionary, cameraIds);
+        out.flush();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes every film in the snapshot, each prefixed by the length of its record
+    private void writeFilm(ArchiveSnapshot a, Map<String, Integer> dictionary, Map<Camera, Integer> cameraIds)
+            throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(buffer);
+
+        out.writeInt(a.getFilm().size());
+        for (Film f : a.getFilm()) {
+            buffer.reset();
+            BinaryFormat.writeFilm(record, f, dictionary, cameraIds);
+            out.writeInt(buffer.size());
+            buffer.writeTo(out);
+        }
+    }
+
+    // MODIFIES: cameras, cameraIds, dictionary
+    // EFFECTS: adds the given camera to the cameras to be written, if it has not been added already
+    private void addCamera(Camera c, ArrayList<Camera> cameras, Map<Camera, Integer> cameraIds,
+                           Map<String, Integer> dictionary) {
+        if (!cameraIds.containsKey(c)) {
+            cameraIds.put(c, cameras.size());
+            cameras.add(c);
+            addToDictionary(c.getFilmType(), dictionary);
+            addToDictionary(c.getManufacturer(), dictionary);
+        }
+    }
+
+    // MODIFIES: dictionary
+    // EFFECTS: adds the given string to the dictionary, if it is not null and not already in the dictionary
+    private void addToDictionary(String s, Map<String, Integer> dictionary) {
+        if (s != null) {
+            dictionary.putIfAbsent(s, dictionary.size());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer; throws IOException if the written data cannot be flushed
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
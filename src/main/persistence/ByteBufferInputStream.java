@@ -0,0 +1,51 @@
+package persistence;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/*
+ * Represents an input stream that reads from a byte buffer, such as a memory mapped file,
+ * starting at the current position of the buffer
+ *
+ * buffer: represents the buffer being read from, whose position is advanced as bytes are read
+ */
+class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    // EFFECTS: constructs a stream that reads from the given buffer
+    ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the next byte from the buffer, or returns -1 if the end of the buffer has been reached
+    @Override
+    public int read() {
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads up to len bytes from the buffer into b, returning the number of bytes read,
+    //          or -1 if the end of the buffer has been reached
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int count = Math.min(len, buffer.remaining());
+        buffer.get(b, off, count);
+        return count;
+    }
+
+    // EFFECTS: returns the number of bytes left in the buffer
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+}
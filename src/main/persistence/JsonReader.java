@@ -2,36 +2,160 @@ package persistence;
 
 import model.*;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /*
  * Is used to read information about an archive from a .json file, and create an archive from use in the application
  * <p>
+ * The archive can either be read all at once, or streamed from the file one camera/film at a time,
+ * which keeps memory use independent of the size of the file.
+ * <p>
+ * Films in files of version 2 or later refer to their camera by the id of a camera in the camera collection.
+ * Films in older files embed a copy of their camera, which is replaced by the matching camera that has
+ * already been read, so that every film shot on one camera shares a single Camera object. A camera read from
+ * the camera collection reuses the matching camera of a film read before it, if that camera is not in the
+ * collection yet.
+ * <p>
  * source: represents the location fo the file that is being read from.
+ * camerasById: represents the cameras read so far, keyed by their id in the file
+ * camerasByValue: represents the cameras read so far, keyed by their name, film type, and manufacturer
  */
-public class JsonReader {
+public class JsonReader implements ArchiveReader {
     private final String source;
+    private final Map<Integer, Camera> camerasById;
+    private final Map<String, Camera> camerasByValue;
 
     // EFFECTS: constructs reader to read from source file
     public JsonReader(String source) {
         this.source = source;
+        this.camerasById = new HashMap<>();
+        this.camerasByValue = new HashMap<>();
     }
 
     // EFFECTS: reads archive from file and returns it;
     // throws IOException if an error occurs reading data from file
+    @Override
     public Archive read() throws IOException {
+        camerasById.clear();
+        camerasByValue.clear();
         String jsonData = readFile(source);
         JSONObject jsonObject = new JSONObject(jsonData);
         return parseArchive(jsonObject);
     }
 
+    // EFFECTS: reads archive from file one token at a time, adding each camera and film to the archive
+    //          as soon as it has been read, and returns it. Film that embeds its camera is added straight away,
+    //          even if it comes before the cameras in the file; only film referring to its camera by id that comes
+    //          before the cameras, and the film after it, is held back until the cameras have been read, so that
+    //          it can be given the right camera; throws IOException if an error occurs reading data from file
+    public Archive readStream() throws IOException {
+        Archive a = new Archive(new CameraCollection(), new FilmCollection());
+        ArrayList<JSONObject> pendingFilm = new ArrayList<>();
+        boolean[] camerasRead = {false};
+        camerasById.clear();
+        camerasByValue.clear();
+
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+            JSONTokener tokener = new JSONTokener(reader);
+            expect(tokener, '{');
+            if (tokener.nextClean() != '}') {
+                tokener.back();
+                do {
+                    String key = nextKey(tokener);
+                    if ("Cameras".equals(key)) {
+                        streamArray(tokener, json -> addCamera(a, json));
+                        camerasRead[0] = true;
+                    } else if ("Film".equals(key)) {
+                        streamArray(tokener, json -> {
+                            boolean embedded = json.opt("camera") instanceof JSONObject;
+                            if (camerasRead[0] || (embedded && pendingFilm.isEmpty())) {
+                                addFilm(a, json);
+                            } else {
+                                pendingFilm.add(json);
+                            }
+                        });
+                    } else {
+                        tokener.nextValue();
+                    }
+                } while (hasNext(tokener, '}'));
+            }
+            for (JSONObject json : pendingFilm) {
+                addFilm(a, json);
+            }
+        } catch (JSONException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+
+        return a;
+    }
+
+    // EFFECTS: reads the next key of an object and the colon that follows it, and returns the key;
+    //          throws JSONException if the next token is not a key
+    private String nextKey(JSONTokener tokener) {
+        char c = tokener.nextClean();
+        if (c != '"' && c != '\'') {
+            throw tokener.syntaxError("Expected a key");
+        }
+        String key = tokener.nextString(c);
+        expect(tokener, ':');
+        return key;
+    }
+
+    // EFFECTS: reads an array of objects, passing each object to the consumer as soon as it has been read;
+    //          throws JSONException if the next value is not an array of objects
+    private void streamArray(JSONTokener tokener, Consumer<JSONObject> consumer) {
+        expect(tokener, '[');
+        if (tokener.nextClean() == ']') {
+            return;
+        }
+        tokener.back();
+        do {
+            Object value = tokener.nextValue();
+            if (!(value instanceof JSONObject)) {
+                throw tokener.syntaxError("Expected an object");
+            }
+            consumer.accept((JSONObject) value);
+        } while (hasNext(tokener, ']'));
+    }
+
+    // EFFECTS: reads the separator after a value, returning true if another value follows it
+    //          and false if it closes the enclosing object/array;
+    //          throws JSONException if the separator is neither
+    private boolean hasNext(JSONTokener tokener, char closing) {
+        char c = tokener.nextClean();
+        if (c == ',') {
+            return true;
+        } else if (c == closing) {
+            return false;
+        }
+        throw tokener.syntaxError("Expected ',' or '" + closing + "'");
+    }
+
+    // EFFECTS: reads the next character that is not whitespace;
+    //          throws JSONException if it is not the expected character
+    private void expect(JSONTokener tokener, char expected) {
+        if (tokener.nextClean() != expected) {
+            throw tokener.syntaxError("Expected '" + expected + "'");
+        }
+    }
+
     // EFFECTS: reads source file as string and returns it
     private String readFile(String source) throws IOException {
         StringBuilder contentBuilder = new StringBuilder();
@@ -61,13 +185,22 @@ public class JsonReader {
         }
     }
 
-    // MODIFIES: a
-    // EFFECTS: parses camera from JSON object and adds it to archive
+    // MODIFIES: this, a
+    // EFFECTS: parses camera from JSON object and adds it to archive, reusing the matching camera of film
+    //          read before it if that camera is not in the archive yet
     private void addCamera(Archive a, JSONObject jsonObject) {
         String name = jsonObject.getString("name");
         String filmType = jsonObject.getString("film type");
         String manufacturer = jsonObject.getString("manufacturer");
-        Camera camera = new Camera(name, filmType, manufacturer);
+        String key = cameraKey(name, filmType, manufacturer);
+        Camera camera = camerasByValue.get(key);
+        if (camera == null || a.cameraCollection.contains(camera)) {
+            camera = new Camera(name, filmType, manufacturer);
+            camerasByValue.putIfAbsent(key, camera);
+        }
+        if (jsonObject.has("id")) {
+            camerasById.put(jsonObject.getInt("id"), camera);
+        }
         a.cameraCollection.addCamera(camera);
     }
 
@@ -81,11 +214,17 @@ public class JsonReader {
         }
     }
 
-    // MODIFIES: a
+    // MODIFIES: this, a
     // EFFECTS: parses film from JSON object and adds it to archive
     private void addFilm(Archive a, JSONObject jsonObject) {
+        a.filmCollection.addFilm(parseFilm(jsonObject));
+    }
 
-        Camera camera = addCameraToFilm(jsonObject.getJSONObject("camera"));
+    // MODIFIES: this
+    // EFFECTS: parses film from JSON object and returns it
+    Film parseFilm(JSONObject jsonObject) {
+
+        Camera camera = parseCameraReference(jsonObject.get("camera"));
 
         Film film = new Film(jsonObject.getString("name"),
                 jsonObject.getInt("iso"),
@@ -110,11 +249,11 @@ public class JsonReader {
             String imagesPath = jsonObject.getString("images path");
             film.setDirectory(imagesPath);
         }
-        a.filmCollection.addFilm(film);
+        return film;
     }
 
     // EFFECTS: parses date from JSON object and returns it
-    private LocalDate addDateToFilm(JSONObject jsonObject) {
+    LocalDate addDateToFilm(JSONObject jsonObject) {
         LocalDate date;
         if (!jsonObject.isEmpty()) {
             int year = jsonObject.getInt("year");
@@ -127,11 +266,45 @@ public class JsonReader {
         return date;
     }
 
-    // EFFECTS: parses camera from JSON object and returns it
-    private Camera addCameraToFilm(JSONObject jsonObject) {
+    // MODIFIES: this
+    // EFFECTS: returns the camera referred to by the given JSON value, either by looking up its id,
+    //          or by finding a camera that has already been read with the same properties as the embedded
+    //          camera, creating one if there is none; throws JSONException if the camera id is unknown
+    Camera parseCameraReference(Object cameraJson) {
+        if (cameraJson instanceof Number) {
+            int id = ((Number) cameraJson).intValue();
+            Camera camera = camerasById.get(id);
+            if (camera == null) {
+                throw new JSONException("Film refers to unknown camera " + id);
+            }
+            return camera;
+        } else if (!(cameraJson instanceof JSONObject)) {
+            throw new JSONException("Expected a camera");
+        }
+
+        JSONObject jsonObject = (JSONObject) cameraJson;
         String name = jsonObject.getString("name");
         String filmType = jsonObject.getString("film type");
         String manufacturer = jsonObject.getString("manufacturer");
-        return new Camera(name, filmType, manufacturer);
+        return camerasByValue.computeIfAbsent(cameraKey(name, filmType, manufacturer),
+                k -> new Camera(name, filmType, manufacturer));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the cameras read so far, and instead resolves camera ids to the index of each camera
+    //          in the given collection, and embedded cameras to the matching camera in the collection
+    void useCameras(CameraCollection cameraCollection) {
+        camerasById.clear();
+        camerasByValue.clear();
+        for (int i = 0; i < cameraCollection.getSize(); i++) {
+            Camera c = cameraCollection.getCamera(i);
+            camerasById.put(i, c);
+            camerasByValue.putIfAbsent(cameraKey(c.getName(), c.getFilmType(), c.getManufacturer()), c);
+        }
+    }
+
+    // EFFECTS: returns a key that is equal for two cameras only if they have the same properties
+    private String cameraKey(String name, String filmType, String manufacturer) {
+        return name + '\0' + filmType + '\0' + manufacturer;
     }
 }
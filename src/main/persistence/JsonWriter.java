@@ -1,44 +1,133 @@
 package persistence;
 
 import model.Archive;
+import model.ArchiveSnapshot;
+import model.Camera;
 import org.json.JSONObject;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /*
  * This class is used to write the contents of of a Archive to a .json file.
  *
+ * The archive can either be converted to a single JSONObject and written all at once, or streamed
+ * to the file one camera/film at a time, which never holds more than one record in memory.
+ *
+ * INDENT_FACTOR: represents the number of spaces used to indent each level of the written JSON
  * destination: represents the location of the .json file
+ * indentFactor: represents the indentation used when streaming, 0 if the output is compact
  */
-public class JsonWriter {
+public class JsonWriter implements ArchiveWriter {
+    private static final int INDENT_FACTOR = 4;
+
     private final String destination;
+    private final int indentFactor;
     private PrintWriter writer;
 
-    // EFFECTS: constructs writer to write to destination file
+    // EFFECTS: constructs writer to write indented JSON to destination file
     public JsonWriter(String destination) {
+        this(destination, false);
+    }
+
+    // EFFECTS: constructs writer to write to destination file, without any indentation
+    //          or line breaks when streaming if compact is true
+    public JsonWriter(String destination, boolean compact) {
         this.destination = destination;
+        this.indentFactor = compact ? 0 : INDENT_FACTOR;
     }
 
     // MODIFIES: this
     // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
     // be opened for writing
+    @Override
     public void open() throws FileNotFoundException {
         writer = new PrintWriter(new File(destination));
     }
 
     // MODIFIES: this
-    // EFFECTS: writes JSON representation of given archive to file
-    public void write(Archive a) {
-        JSONObject json = a.toJson();
-        saveToFile(json.toString(4));
+    // EFFECTS: writes JSON representation of given archive snapshot to file
+    @Override
+    public void write(ArchiveSnapshot s) {
+        JSONObject json = s.toJson();
+        saveToFile(json.toString(INDENT_FACTOR));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of given archive to file, one camera/film at a time
+    public void writeStream(Archive a) {
+        writeStream(a.view());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of given archive snapshot to file, converting one camera/film
+    //          to JSON at a time as the collections are walked. The cameras are written before the film,
+    //          so that a streaming reader already knows every camera id when it reads the film
+    public void writeStream(ArchiveSnapshot s) {
+        Map<Camera, Integer> cameraIds = s.getCameraIds();
+
+        writer.write('{');
+        newLine(indentFactor);
+        writer.write(JSONObject.quote("version"));
+        writer.write(indentFactor > 0 ? ": " : ":");
+        writer.write(Integer.toString(Archive.FORMAT_VERSION));
+        writer.write(',');
+        writeArray("Cameras", s.getCameras(), c -> c.toJson(cameraIds.get(c)));
+        writer.write(',');
+        writeArray("Film", s.getFilm(), f -> f.toJson(cameraIds));
+        newLine(0);
+        writer.write('}');
+        writer.flush();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the given items to file as a JSON array with the given key
+    private <T> void writeArray(String key, List<T> items, Function<T, JSONObject> toJson) {
+        newLine(indentFactor);
+        writer.write(JSONObject.quote(key));
+        writer.write(indentFactor > 0 ? ": [" : ":[");
+
+        boolean first = true;
+        for (T item : items) {
+            if (!first) {
+                writer.write(',');
+            }
+            newLine(2 * indentFactor);
+            toJson.apply(item).write(writer, indentFactor, 2 * indentFactor);
+            first = false;
+        }
+
+        if (!items.isEmpty()) {
+            newLine(indentFactor);
+        }
+        writer.write(']');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a new line indented by the given number of spaces, unless the output is compact
+    private void newLine(int indent) {
+        if (indentFactor > 0) {
+            writer.write('\n');
+            for (int i = 0; i < indent; i++) {
+                writer.write(' ');
+            }
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: closes writer
-    public void close() {
+    // EFFECTS: closes writer; throws IOException if any of the data written could not be written to the file,
+    //          as the underlying PrintWriter only records errors instead of throwing them
+    @Override
+    public void close() throws IOException {
         writer.close();
+        if (writer.checkError()) {
+            throw new IOException("Could not write to " + destination);
+        }
     }
 
     // MODIFIES: this
@@ -0,0 +1,121 @@
+package persistence;
+
+import model.Archive;
+import model.Camera;
+import model.CameraCollection;
+import model.Film;
+import model.FilmCollection;
+import model.FilmSource;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Is used to read an archive from a binary file written by BinaryWriter without decoding its film up front.
+ * The file is memory mapped, only the dictionary and cameras are read, and an index of where each film
+ * record starts is built from the record lengths. Each film is decoded from the mapped file the first
+ * time the film collection of the archive needs it, so loading takes almost the same time regardless
+ * of how much film is in the archive.
+ *
+ * A mapped file stays mapped until the buffer is garbage collected, and Windows does not allow a mapped file to be
+ * replaced, so a file that will be replaced while its archive is in use is copied into memory instead of mapped.
+ *
+ * source: represents the location of the file that is being read from
+ * copy: represents whether the file is copied into memory instead of mapped, so that no hold is kept on the file
+ */
+public class MappedBinaryReader implements ArchiveReader {
+    private final String source;
+    private final boolean copy;
+
+    // EFFECTS: constructs reader to read from source file, which is mapped into memory
+    public MappedBinaryReader(String source) {
+        this(source, false);
+    }
+
+    // EFFECTS: constructs reader to read from source file, which is copied into memory if copy is true,
+    //          and mapped into memory otherwise
+    public MappedBinaryReader(String source, boolean copy) {
+        this.source = source;
+        this.copy = copy;
+    }
+
+    // EFFECTS: maps or copies the file into memory and returns an archive whose film is decoded on first access;
+    //          throws IOException if an error occurs reading data from file, or if the file is not a binary archive
+    @Override
+    public Archive read() throws IOException {
+        ByteBuffer buffer;
+        if (copy) {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(Paths.get(source)));
+        } else {
+            try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(buffer));
+        BinaryReader.readHeader(in);
+        String[] dictionary = BinaryReader.readDictionary(in);
+
+        CameraCollection cameraCollection = new CameraCollection();
+        Camera[] cameras = BinaryReader.readCameras(in, dictionary, cameraCollection);
+
+        int[] offsets = new int[in.readInt()];
+        for (int i = 0; i < offsets.length; i++) {
+            int length = buffer.getInt();
+            offsets[i] = buffer.position();
+            buffer.position(offsets[i] + length);
+        }
+
+        FilmSource filmSource = new MappedFilmSource(buffer, offsets, dictionary, cameras);
+        return new Archive(cameraCollection, new FilmCollection(filmSource));
+    }
+
+    /*
+     * Represents the film records of a mapped binary archive
+     *
+     * buffer: represents the mapped or copied file
+     * offsets: represents the position in the file of each film record
+     * dictionary: represents the strings that the film records refer to
+     * cameras: represents the cameras that the film records refer to
+     */
+    private static class MappedFilmSource implements FilmSource {
+        private final ByteBuffer buffer;
+        private final int[] offsets;
+        private final String[] dictionary;
+        private final Camera[] cameras;
+
+        // EFFECTS: constructs a source of the film records at the given offsets of the buffer
+        MappedFilmSource(ByteBuffer buffer, int[] offsets, String[] dictionary, Camera[] cameras) {
+            this.buffer = buffer;
+            this.offsets = offsets;
+            this.dictionary = dictionary;
+            this.cameras = cameras;
+        }
+
+        // EFFECTS: returns the number of film records in the file
+        @Override
+        public int size() {
+            return offsets.length;
+        }
+
+        // EFFECTS: decodes the film record at the given index from the mapped or copied file;
+        //          throws UncheckedIOException if the record is corrupt
+        @Override
+        public Film decode(int index) {
+            ByteBuffer record = buffer.duplicate();
+            record.position(offsets[index]);
+            try {
+                return BinaryFormat.readFilm(new DataInputStream(new ByteBufferInputStream(record)),
+                        dictionary, cameras);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package persistence;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/*
+ * Represents a cache on disk of the thumbnails made from photos, so that photos only have to be decoded and resized
+ * once. Each thumbnail is stored as a JPEG file named after a hash of the path, modification time and size of its
+ * photo, so a photo that is replaced or edited no longer matches its old thumbnail. Once the thumbnails take more
+ * space than the capacity of the cache, the least recently used thumbnails are deleted. The modification time of a
+ * thumbnail records when it was last used, so that the order is kept between runs of the application.
+ *
+ * DEFAULT_DIRECTORY: represents the directory thumbnails are stored in by default
+ * DEFAULT_CAPACITY: represents the number of bytes thumbnails may take by default
+ * EXTENSION: represents the extension of the thumbnail files
+ * directory: represents the directory thumbnails are stored in
+ * capacity: represents the number of bytes the thumbnails may take
+ * entries: represents the size of each thumbnail, by file name, from least to most recently used
+ * keysByPath: represents the file name of the thumbnail last stored for each photo, by path of the photo
+ * size: represents the number of bytes the thumbnails take
+ */
+public class ThumbnailCache {
+    public static final String DEFAULT_DIRECTORY = "./data/.thumbs";
+    public static final long DEFAULT_CAPACITY = 256L * 1024 * 1024;
+    public static final String EXTENSION = ".jpg";
+
+    private final Path directory;
+    private long capacity;
+    private final LinkedHashMap<String, Long> entries;
+    private final Map<String, String> keysByPath;
+    private long size;
+
+    // EFFECTS: constructs a cache in the default directory with the default capacity;
+    //          throws IOException if the directory cannot be created or read
+    public ThumbnailCache() throws IOException {
+        this(DEFAULT_DIRECTORY, DEFAULT_CAPACITY);
+    }
+
+    // EFFECTS: constructs a cache in the given directory, which may take up to capacity bytes, keeping the
+    //          thumbnails already stored in it; throws IOException if the directory cannot be created or read
+    public ThumbnailCache(String directory, long capacity) throws IOException {
+        this.directory = Paths.get(directory);
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.keysByPath = new HashMap<>();
+        Files.createDirectories(this.directory);
+
+        List<Path> stored = new ArrayList<>();
+        try (Stream<Path> files = Files.list(this.directory)) {
+            files.forEach(stored::add);
+        }
+        for (Iterator<Path> it = stored.iterator(); it.hasNext(); ) {
+            Path p = it.next();
+            if (!p.getFileName().toString().endsWith(EXTENSION)) {
+                // left over from a thumbnail that was being written when the application stopped
+                Files.deleteIfExists(p);
+                it.remove();
+            }
+        }
+        stored.sort(Comparator.comparing(p -> p.toFile().lastModified()));
+        for (Path p : stored) {
+            long length = p.toFile().length();
+            entries.put(p.getFileName().toString(), length);
+            size += length;
+        }
+        evict();
+    }
+
+    // EFFECTS: returns the number of bytes the thumbnails take
+    public synchronized long getSize() {
+        return size;
+    }
+
+    // EFFECTS: returns the number of thumbnails in the cache
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    // EFFECTS: returns the number of bytes the thumbnails may take
+    public synchronized long getCapacity() {
+        return capacity;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the number of bytes the thumbnails may take, deleting the least recently used thumbnails if the
+    //          cache is over the new capacity
+    public synchronized void setCapacity(long capacity) {
+        this.capacity = capacity;
+        evict();
+    }
+
+    // EFFECTS: returns true if the cache has a thumbnail of the current version of the given photo
+    public boolean contains(File photo) throws IOException {
+        String key = key(photo);
+        synchronized (this) {
+            return entries.containsKey(key);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the thumbnail of the current version of the given photo, or null if it is not in the cache;
+    //          a thumbnail of an earlier version of the photo is deleted
+    public BufferedImage get(File photo) throws IOException {
+        String key = key(photo);
+        synchronized (this) {
+            removeStale(photo, key);
+            if (entries.get(key) == null) {
+                return null;
+            }
+            keysByPath.put(photo.getAbsolutePath(), key);
+        }
+
+        Path file = directory.resolve(key);
+        try {
+            BufferedImage thumbnail = ImageIO.read(file.toFile());
+            if (thumbnail != null) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+            return thumbnail;
+        } catch (IOException e) {
+            // the thumbnail was evicted while it was being read
+            return null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stores the given thumbnail of the current version of the given photo, replacing the thumbnail of
+    //          an earlier version of the photo, and deletes the least recently used thumbnails if the cache is
+    //          over capacity; returns the number of bytes the thumbnail takes on disk; throws IOException if the
+    //          thumbnail cannot be written
+    public long put(File photo, BufferedImage thumbnail) throws IOException {
+        String key = key(photo);
+        Path file = directory.resolve(key);
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        try {
+            if (!ImageIO.write(toRgb(thumbnail), "jpg", temp.toFile())) {
+                throw new IOException("No JPEG writer available");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        long length = file.toFile().length();
+        synchronized (this) {
+            removeStale(photo, key);
+            Long previous = entries.put(key, length);
+            if (previous != null) {
+                size -= previous;
+            }
+            size += length;
+            keysByPath.put(photo.getAbsolutePath(), key);
+            evict();
+        }
+        return length;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes the thumbnail of the given photo, if any; throws IOException if it cannot be deleted
+    public void remove(File photo) throws IOException {
+        String key;
+        synchronized (this) {
+            key = keysByPath.remove(photo.getAbsolutePath());
+        }
+        if (key == null && photo.exists()) {
+            key = key(photo);
+        }
+        if (key != null) {
+            synchronized (this) {
+                delete(key);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes the thumbnail last stored for the given photo if it is not the thumbnail with the given key
+    private void removeStale(File photo, String key) {
+        String previous = keysByPath.get(photo.getAbsolutePath());
+        if (previous != null && !previous.equals(key)) {
+            keysByPath.remove(photo.getAbsolutePath());
+            delete(previous);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes the least recently used thumbnails until the cache is within its capacity
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (size > capacity && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            size -= eldest.getValue();
+            directory.resolve(eldest.getKey()).toFile().delete();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes the thumbnail with the given key, if any
+    private void delete(String key) {
+        Long length = entries.remove(key);
+        if (length != null) {
+            size -= length;
+            directory.resolve(key).toFile().delete();
+        }
+    }
+
+    // EFFECTS: returns the name of the thumbnail file of the current version of the given photo;
+    //          throws IOException if the photo does not exist
+    static String key(File photo) throws IOException {
+        if (!photo.isFile()) {
+            throw new IOException("Photo does not exist: " + photo);
+        }
+        String id = photo.getCanonicalPath() + "|" + photo.lastModified() + "|" + photo.length();
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest(id.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder();
+            for (byte b : hash) {
+                key.append(String.format("%02x", b));
+            }
+            return key.append(EXTENSION).toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+
+    // EFFECTS: returns the given image without transparency, as JPEG files cannot store it
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return rgb;
+    }
+}
@@ -4,25 +4,42 @@ import model.Archive;
 import model.CameraCollection;
 import model.Film;
 import model.FilmCollection;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.ArchiveJournal;
+import persistence.ThumbnailCache;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 // Analog Archive application
 public class AnalogArchiveApp {
 
-    private final JsonWriter jsonWriter;
-    private final JsonReader jsonReader;
+    private static final String SAVE_FILE = "./data/saveFile.json";
+
+    private final ArchiveJournal journal;
+    private final boolean lazyLoad;
     private FilmCollection filmCollection;
     private CameraCollection cameraCollection;
     private Film activeFilm;
+    private ThumbnailCache thumbnailCache;
+    private long thumbnailCapacity = ThumbnailCache.DEFAULT_CAPACITY;
 
-    // EFFECTS: runs the teller application
+    // EFFECTS: runs the teller application, saving to the default save file
     public AnalogArchiveApp() {
-        jsonWriter = new JsonWriter("./data/saveFile.json");
-        jsonReader = new JsonReader("./data/saveFile.json");
+        this(SAVE_FILE);
+    }
+
+    // EFFECTS: runs the teller application, saving to the given file in the format given by its extension,
+    //          and loading film lazily when the format allows it
+    public AnalogArchiveApp(String saveFile) {
+        this(saveFile, true);
+    }
+
+    // EFFECTS: runs the teller application, saving to the given file in the format given by its extension;
+    //          if lazyLoad is true, film is only decoded when it is first needed, if the format allows it
+    public AnalogArchiveApp(String saveFile, boolean lazyLoad) {
+        journal = new ArchiveJournal(saveFile);
+        this.lazyLoad = lazyLoad;
+        Runtime.getRuntime().addShutdownHook(new Thread(journal::flush));
         init();
     }
 
@@ -42,30 +59,61 @@ public class AnalogArchiveApp {
         this.activeFilm = activeFilm;
     }
 
+    // MODIFIES: this
+    // EFFECTS: returns the cache of photo thumbnails in the default directory, opening it with the thumbnail
+    //          capacity the first time, or null if it cannot be opened
+    public synchronized ThumbnailCache getThumbnailCache() {
+        if (thumbnailCache == null) {
+            try {
+                thumbnailCache = new ThumbnailCache(ThumbnailCache.DEFAULT_DIRECTORY, thumbnailCapacity);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        return thumbnailCache;
+    }
+
+    // EFFECTS: returns the number of bytes the cache of photo thumbnails may take
+    public synchronized long getThumbnailCapacity() {
+        return thumbnailCapacity;
+    }
+
+    // REQUIRES: capacity > 0
+    // MODIFIES: this
+    // EFFECTS: sets the number of bytes the cache of photo thumbnails may take, evicting thumbnails from the cache
+    //          right away if it is open and over the new capacity
+    public synchronized void setThumbnailCapacity(long capacity) {
+        thumbnailCapacity = capacity;
+        if (thumbnailCache != null) {
+            thumbnailCache.setCapacity(capacity);
+        }
+    }
+
     // MODIFIES: this
     // EFFECTS: initializes collections
     private void init() {
         filmCollection = new FilmCollection();
         cameraCollection = new CameraCollection();
+        journal.attach(new Archive(cameraCollection, filmCollection));
     }
 
-    // EFFECTS: saves archive to file
-    //          FileNotFoundException: thrown if the file cannot be found to save to.
-    public void saveArchive() throws FileNotFoundException {
-        jsonWriter.open();
-        Archive archive = new Archive(cameraCollection, filmCollection);
-        jsonWriter.write(archive);
-        jsonWriter.close();
+    // MODIFIES: this
+    // EFFECTS: starts saving the changes made to the archive since it was last saved or loaded to file in the
+    //          background, appending them to the journal of the save file, or replacing the save file when needed,
+    //          and returns a future that completes once they have been written
+    //          IOException: completes the future exceptionally if the file cannot be written to.
+    public CompletableFuture<Void> saveArchive() {
+        return journal.save();
     }
 
     // MODIFIES: this
     // EFFECTS: loads archive from file
     //          IOException: thrown if the file is unable to be read from
     public void loadArchive() throws IOException {
-        Archive archive = jsonReader.read();
+        Archive archive = journal.load(lazyLoad);
         cameraCollection = archive.cameraCollection;
         filmCollection = archive.filmCollection;
     }
 
 
-}
\ No newline at end of file
+}
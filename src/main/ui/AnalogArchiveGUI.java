@@ -63,25 +63,7 @@ public class AnalogArchiveGUI extends JFrame {
         listPanel.update();
         filmPanel.update();
         if (updatePhotoPanel) {
-            JDialog dialog = new JDialog((JFrame) null, "", true);
-            dialog.setSize(new Dimension(300, 25));
-            JProgressBar progressBar = new JProgressBar(JProgressBar.HORIZONTAL);
-            progressBar.setIndeterminate(true);
-            dialog.add(progressBar);
-            dialog.setLocationRelativeTo(null);
-            dialog.setUndecorated(true);
-            Thread t = new Thread(() -> dialog.setVisible(true));
-            t.start();
-            Thread t2 = new Thread(() -> {
-                try {
-                    Thread.sleep(200);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-                photoPanel.update();
-                dialog.setVisible(false);
-            });
-            t2.start();
+            photoPanel.update();
         }
     }
 }
@@ -1,25 +1,41 @@
 package ui;
 
+import model.Film;
 import model.FilmCollection;
+import persistence.ThumbnailCache;
+import ui.images.ThumbnailBatchJob;
+import ui.panels.PhotoPanel;
+import ui.panels.StatsPanel;
 
 import javax.swing.*;
+import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.FileNotFoundException;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /*
- * Represents the menu bar of the GUI, used to load and save the application state.
+ * Represents the menu bar of the GUI, used to load and save the application state, to generate the thumbnails of
+ * every photo in the archive in advance, to set how much space the thumbnails may take, and to show statistics over
+ * the archive.
+ *
+ * MEGABYTE: represents the number of bytes in a megabyte
  *
  * app: represents the current state of the app, including all of the properties of the archive
  * gui: represents the current state of the GUI
  */
 public class MenuBar extends JMenuBar implements ActionListener {
+    private static final long MEGABYTE = 1024L * 1024;
 
     private final AnalogArchiveApp app;
     private final AnalogArchiveGUI gui;
 
-    // EFFECTS: constructs the menu bar, with menu items "load" and "save"
+    // EFFECTS: constructs the menu bar, with menu items "load", "save", "generate all thumbnails",
+    //          "thumbnail cache size", and "statistics"
     public MenuBar(AnalogArchiveApp app, AnalogArchiveGUI gui) {
 
         this.app = app;
@@ -36,7 +52,25 @@ public class MenuBar extends JMenuBar implements ActionListener {
         save.addActionListener(this);
         save.setActionCommand("save");
         file.add(save);
+
+        file.addSeparator();
+        JMenuItem thumbnails = new JMenuItem("Generate all thumbnails");
+        thumbnails.addActionListener(this);
+        thumbnails.setActionCommand("thumbnails");
+        file.add(thumbnails);
+
+        JMenuItem thumbnailCapacity = new JMenuItem("Thumbnail cache size");
+        thumbnailCapacity.addActionListener(this);
+        thumbnailCapacity.setActionCommand("thumbnail capacity");
+        file.add(thumbnailCapacity);
         add(file);
+
+        JMenu view = new JMenu("View");
+        JMenuItem statistics = new JMenuItem("Statistics");
+        statistics.addActionListener(this);
+        statistics.setActionCommand("statistics");
+        view.add(statistics);
+        add(view);
     }
 
     // EFFECTS: handles all of the action command of the menu bar
@@ -58,12 +92,150 @@ public class MenuBar extends JMenuBar implements ActionListener {
             }
 
         } else if (e.getActionCommand().equals("save")) {
-            try {
-                app.saveArchive();
-            } catch (FileNotFoundException fileNotFoundException) {
-                JOptionPane.showMessageDialog(
-                        null, "Save file could not be located", "File Write Error", JOptionPane.ERROR_MESSAGE);
+            app.saveArchive().whenComplete((result, exception) -> {
+                if (exception != null) {
+                    SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(
+                            null, "Save file could not be located", "File Write Error", JOptionPane.ERROR_MESSAGE));
+                }
+            });
+        } else if (e.getActionCommand().equals("thumbnails")) {
+            generateThumbnails();
+        } else if (e.getActionCommand().equals("thumbnail capacity")) {
+            setThumbnailCapacity();
+        } else if (e.getActionCommand().equals("statistics")) {
+            showStatistics();
+        }
+    }
+
+    // MODIFIES: app
+    // EFFECTS: asks for the number of megabytes the thumbnail cache may take, and sets it
+    private void setThumbnailCapacity() {
+        String input = JOptionPane.showInputDialog(
+                gui, "Thumbnail cache size (MB)", app.getThumbnailCapacity() / MEGABYTE);
+        if (input == null) {
+            return;
+        }
+        long megabytes;
+        try {
+            megabytes = Long.parseLong(input.trim());
+        } catch (NumberFormatException numberFormatException) {
+            megabytes = 0;
+        }
+        if (megabytes < 1) {
+            JOptionPane.showMessageDialog(
+                    null, "Thumbnail cache size must be a positive number", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        app.setThumbnailCapacity(megabytes * MEGABYTE);
+    }
+
+    // EFFECTS: shows the statistics of the film collection in a dialog, kept up to date until it is closed
+    private void showStatistics() {
+        FilmCollection films = app.getFilmCollection();
+        if (films == null) {
+            return;
+        }
+        StatsPanel panel = new StatsPanel(films);
+        JDialog dialog = new JDialog(gui, "Statistics", false);
+        dialog.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        dialog.addWindowListener(new WindowAdapter() {
+            // EFFECTS: stops keeping the statistics up to date
+            @Override
+            public void windowClosed(WindowEvent event) {
+                panel.detach();
             }
+        });
+        dialog.add(panel);
+        dialog.pack();
+        dialog.setLocationRelativeTo(gui);
+        dialog.setVisible(true);
+    }
+
+    // EFFECTS: asks for a number of threads, then generates the thumbnails of the photos of every roll with an
+    //          images path in the background, showing the progress and throughput of the job in a dialog that
+    //          can cancel it; warns if the job stopped because the thumbnails would not fit in the cache
+    private void generateThumbnails() {
+        ThumbnailCache cache = app.getThumbnailCache();
+        if (cache == null) {
+            JOptionPane.showMessageDialog(
+                    null, "Thumbnail cache could not be opened", "File Write Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        String input = JOptionPane.showInputDialog(
+                gui, "Number of threads", Runtime.getRuntime().availableProcessors());
+        if (input == null) {
+            return;
         }
+        int threads;
+        try {
+            threads = Integer.parseInt(input.trim());
+        } catch (NumberFormatException numberFormatException) {
+            threads = 0;
+        }
+        if (threads < 1) {
+            JOptionPane.showMessageDialog(
+                    null, "Number of threads must be a positive number", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        ThumbnailBatchJob job = new ThumbnailBatchJob(cache, threads);
+        List<Film> films = app.getFilmCollection().filterByPhotosPathExist();
+        JDialog dialog = new JDialog(gui, "Generating thumbnails", false);
+        JProgressBar progressBar = new JProgressBar(JProgressBar.HORIZONTAL);
+        progressBar.setIndeterminate(true);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Listing photos");
+        JButton cancel = new JButton("Cancel");
+        cancel.addActionListener(event -> job.cancel());
+        dialog.setLayout(new BorderLayout());
+        dialog.add(progressBar, BorderLayout.CENTER);
+        dialog.add(cancel, BorderLayout.EAST);
+        dialog.setSize(new Dimension(700, 60));
+        dialog.setLocationRelativeTo(gui);
+
+        SwingWorker<ThumbnailBatchJob.Progress, ThumbnailBatchJob.Progress> worker =
+                new SwingWorker<ThumbnailBatchJob.Progress, ThumbnailBatchJob.Progress>() {
+                    // EFFECTS: runs the job on a background thread
+                    @Override
+                    protected ThumbnailBatchJob.Progress doInBackground() throws InterruptedException {
+                        List<File> photos = ThumbnailBatchJob.photosOf(films, PhotoPanel.IMAGE_FILTER);
+                        return job.run(photos, this::publish);
+                    }
+
+                    // EFFECTS: shows the latest progress of the job
+                    @Override
+                    protected void process(List<ThumbnailBatchJob.Progress> chunks) {
+                        ThumbnailBatchJob.Progress latest = chunks.get(chunks.size() - 1);
+                        progressBar.setIndeterminate(false);
+                        progressBar.setMaximum(latest.getTotal());
+                        progressBar.setValue(latest.getProcessed());
+                        progressBar.setString(latest.toString());
+                    }
+
+                    // EFFECTS: closes the dialog and shows how the job went
+                    @Override
+                    protected void done() {
+                        dialog.dispose();
+                        try {
+                            if (job.isOverCapacity()) {
+                                JOptionPane.showMessageDialog(gui, String.format("Stopped, the thumbnails would take "
+                                        + "about %d MB, more than the %d MB of the thumbnail cache. Raise the "
+                                        + "thumbnail cache size and run again to resume: %s",
+                                        job.getProjectedSize() / MEGABYTE, cache.getCapacity() / MEGABYTE, get()),
+                                        "Thumbnails", JOptionPane.WARNING_MESSAGE);
+                                return;
+                            }
+                            String result = job.isCancelled() ? "Cancelled, run again to resume: " : "Done: ";
+                            JOptionPane.showMessageDialog(gui, result + get(), "Thumbnails",
+                                    JOptionPane.INFORMATION_MESSAGE);
+                        } catch (InterruptedException | ExecutionException exception) {
+                            JOptionPane.showMessageDialog(null, "Thumbnails could not be generated",
+                                    "File Write Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }
+                };
+        dialog.setVisible(true);
+        worker.execute();
     }
 }
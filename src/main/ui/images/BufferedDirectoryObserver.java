@@ -0,0 +1,79 @@
+package ui.images;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Represents an observer that passes the changes made to a watched directory on to another observer, but can hold
+ * them back while the directory is being listed and pass them on, in the order they were made, once the listing
+ * has been used. A change made while the directory is being listed may or may not be part of the listing, so it
+ * must only be applied after the listing: a file added during the listing would otherwise be added twice, and a
+ * file removed during the listing would come back with the listing.
+ *
+ * delegate: represents the observer the changes are passed on to
+ * held: represents the changes held back, in the order they were made, or null if changes are passed on straight away
+ */
+public class BufferedDirectoryObserver implements DirectoryObserver {
+    private final DirectoryObserver delegate;
+    private List<Runnable> held;
+
+    // EFFECTS: constructs an observer passing changes on to the given observer straight away
+    public BufferedDirectoryObserver(DirectoryObserver delegate) {
+        this.delegate = delegate;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: holds back the changes made from now on, forgetting any change that is still held back
+    public synchronized void hold() {
+        held = new ArrayList<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: passes the changes held back on, in the order they were made, and passes the changes made from now on
+    //          straight away
+    public synchronized void release() {
+        List<Runnable> changes = held;
+        held = null;
+        if (changes != null) {
+            for (Runnable change : changes) {
+                change.run();
+            }
+        }
+    }
+
+    // EFFECTS: returns true if changes are being held back
+    public synchronized boolean isHolding() {
+        return held != null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: passes the given change on, or holds it back if changes are being held back
+    private synchronized void pass(Runnable change) {
+        if (held != null) {
+            held.add(change);
+        } else {
+            change.run();
+        }
+    }
+
+    @Override
+    public void fileAdded(File file) {
+        pass(() -> delegate.fileAdded(file));
+    }
+
+    @Override
+    public void fileRemoved(File file) {
+        pass(() -> delegate.fileRemoved(file));
+    }
+
+    @Override
+    public void fileChanged(File file) {
+        pass(() -> delegate.fileChanged(file));
+    }
+
+    @Override
+    public void directoryRescanned(File directory, List<File> files) {
+        pass(() -> delegate.directoryRescanned(directory, files));
+    }
+}
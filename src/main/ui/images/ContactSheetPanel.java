@@ -0,0 +1,235 @@
+package ui.images;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
+
+/*
+ * Represents a contact sheet of the photos of a roll, shown as a grid of small tiles to be put in a scroll pane.
+ * Only the tiles that are visible are painted, without a component for each tile, and only their photos are
+ * loaded, in the background, so that rolls of thousands of photos scroll smoothly. Loading the photos of tiles that
+ * were scrolled out of view is skipped if it has not started yet.
+ *
+ * TILE_WIDTH: represents the maximum width of the photo of a tile
+ * TILE_HEIGHT: represents the maximum height of the photo of a tile
+ * GAP: represents the space around each tile
+ * TILE_BUDGET: represents the number of bytes of tiles kept in memory
+ * loader: represents the worker threads that load the photos of the tiles
+ * tiles: represents the cache in memory of the photos of the tiles
+ * loading: represents the photos of the tiles being loaded
+ * failed: represents the photos that could not be read
+ * photos: represents the photos shown on the contact sheet, in order
+ * selectionHandler: represents the handler called with the index of a photo when its tile is clicked
+ */
+public class ContactSheetPanel extends JComponent implements Scrollable {
+    public static final int TILE_WIDTH = 160;
+    public static final int TILE_HEIGHT = 120;
+    public static final int GAP = 8;
+    public static final long TILE_BUDGET = 16L * 1024 * 1024;
+
+    private final ImageLoader loader;
+    private final ImageCache tiles;
+    private final Map<File, CompletableFuture<BufferedImage>> loading;
+    private final Set<File> failed;
+    private List<File> photos;
+    private final IntConsumer selectionHandler;
+
+    // EFFECTS: constructs an empty contact sheet that loads its tiles with the given loader, and calls the given
+    //          handler with the index of a photo when its tile is clicked
+    public ContactSheetPanel(ImageLoader loader, IntConsumer selectionHandler) {
+        this.loader = loader;
+        this.tiles = new ImageCache(TILE_BUDGET);
+        this.loading = new HashMap<>();
+        this.failed = new HashSet<>();
+        this.photos = new ArrayList<>();
+        this.selectionHandler = selectionHandler;
+
+        addMouseListener(new MouseAdapter() {
+            // EFFECTS: selects the photo of the tile that was clicked, if any
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = indexAt(e.getPoint());
+                if (index != -1) {
+                    ContactSheetPanel.this.selectionHandler.accept(index);
+                }
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the given photos on the contact sheet, in order
+    public void setPhotos(List<File> photos) {
+        this.photos = new ArrayList<>(photos);
+        revalidate();
+        repaint();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads the tile of the given photo again, as the photo has been changed
+    public void invalidate(File photo) {
+        tiles.remove(photo);
+        failed.remove(photo);
+        CompletableFuture<BufferedImage> tile = loading.remove(photo);
+        if (tile != null) {
+            tile.cancel(false);
+        }
+        repaint();
+    }
+
+    // EFFECTS: returns the number of columns of tiles that fit in the width of the contact sheet
+    private int columns() {
+        return Math.max(1, (getWidth() - GAP) / (TILE_WIDTH + GAP));
+    }
+
+    // EFFECTS: returns the bounds of the tile of the photo at the given index
+    private Rectangle tileBounds(int index) {
+        int columns = columns();
+        return new Rectangle(GAP + (index % columns) * (TILE_WIDTH + GAP),
+                GAP + (index / columns) * (TILE_HEIGHT + GAP), TILE_WIDTH, TILE_HEIGHT);
+    }
+
+    // EFFECTS: returns the index of the photo whose tile contains the given point, or -1 if there is none
+    private int indexAt(Point p) {
+        int column = (p.x - GAP) / (TILE_WIDTH + GAP);
+        int row = (p.y - GAP) / (TILE_HEIGHT + GAP);
+        int index = row * columns() + column;
+        if (p.x < GAP || p.y < GAP || column >= columns() || index >= photos.size()
+                || !tileBounds(index).contains(p)) {
+            return -1;
+        }
+        return index;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: paints the tiles within the area being painted, starts loading the photos of the visible tiles that
+    //          have not been loaded yet, and skips loading the photos of the tiles that are no longer visible
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(getBackground());
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        for (int index : indexesWithin(clip)) {
+            paintTile(g, index);
+        }
+
+        Set<File> visible = new HashSet<>();
+        for (int index : indexesWithin(getVisibleRect())) {
+            visible.add(photos.get(index));
+        }
+        Iterator<Map.Entry<File, CompletableFuture<BufferedImage>>> it = loading.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<File, CompletableFuture<BufferedImage>> entry = it.next();
+            if (!visible.contains(entry.getKey())) {
+                entry.getValue().cancel(false);
+                it.remove();
+            }
+        }
+    }
+
+    // EFFECTS: returns the indexes of the photos whose tiles are in the rows overlapping the given area
+    private List<Integer> indexesWithin(Rectangle area) {
+        List<Integer> indexes = new ArrayList<>();
+        int columns = columns();
+        int firstRow = Math.max(0, (area.y - GAP) / (TILE_HEIGHT + GAP));
+        int lastRow = (area.y + area.height) / (TILE_HEIGHT + GAP);
+        for (int index = firstRow * columns; index < Math.min(photos.size(), (lastRow + 1) * columns); index++) {
+            indexes.add(index);
+        }
+        return indexes;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: paints the tile of the photo at the given index, or a placeholder if its photo has not been loaded
+    //          yet, in which case loading its photo is started
+    private void paintTile(Graphics g, int index) {
+        Rectangle bounds = tileBounds(index);
+        File photo = photos.get(index);
+        BufferedImage tile = tiles.get(photo);
+        if (tile != null) {
+            g.drawImage(tile, bounds.x + (TILE_WIDTH - tile.getWidth()) / 2,
+                    bounds.y + (TILE_HEIGHT - tile.getHeight()) / 2, null);
+            return;
+        }
+
+        g.setColor(getForeground().darker().darker());
+        g.drawRect(bounds.x, bounds.y, bounds.width - 1, bounds.height - 1);
+        g.drawString(failed.contains(photo) ? "could not be read" : photo.getName(),
+                bounds.x + 4, bounds.y + bounds.height / 2);
+        if (!failed.contains(photo) && !loading.containsKey(photo)) {
+            load(photo, index);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts loading the tile of the given photo, and repaints its tile once it has been loaded
+    private void load(File photo, int index) {
+        CompletableFuture<BufferedImage> tile = loader.loadScaled(photo, TILE_WIDTH, TILE_HEIGHT);
+        loading.put(photo, tile);
+        tile.whenComplete((image, exception) -> SwingUtilities.invokeLater(() -> {
+            if (loading.get(photo) != tile) {
+                return;
+            }
+            loading.remove(photo);
+            if (image != null) {
+                tiles.put(photo, image);
+            } else {
+                failed.add(photo);
+            }
+            repaint(tileBounds(index));
+        }));
+    }
+
+    // EFFECTS: returns the size of the contact sheet, as wide as the scroll pane showing it,
+    //          and tall enough for every row of tiles
+    @Override
+    public Dimension getPreferredSize() {
+        int width = getParent() == null ? getWidth() : getParent().getWidth();
+        int columns = Math.max(1, (width - GAP) / (TILE_WIDTH + GAP));
+        int rows = (photos.size() + columns - 1) / columns;
+        return new Dimension(Math.max(width, TILE_WIDTH + 2 * GAP), GAP + rows * (TILE_HEIGHT + GAP));
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    // EFFECTS: scrolls by a quarter of a row
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return (TILE_HEIGHT + GAP) / 4;
+    }
+
+    // EFFECTS: scrolls by a page of rows
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return Math.max(TILE_HEIGHT + GAP, visibleRect.height - (TILE_HEIGHT + GAP));
+    }
+
+    // EFFECTS: returns true, as the tiles wrap to the width of the scroll pane
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package ui.images;
+
+import java.io.File;
+import java.util.List;
+
+/*
+ * Represents an object that is notified whenever files are added to, removed from, or changed in a watched directory
+ */
+public interface DirectoryObserver {
+
+    // EFFECTS: called after the given file has been added to the directory
+    void fileAdded(File file);
+
+    // EFFECTS: called after the given file has been removed from the directory
+    void fileRemoved(File file);
+
+    // EFFECTS: called after the given file in the directory has been changed or replaced
+    void fileChanged(File file);
+
+    // EFFECTS: called with every file in the directory when too many changes were made at once for each of them
+    //          to be reported
+    void directoryRescanned(File directory, List<File> files);
+}
@@ -0,0 +1,115 @@
+package ui.images;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Represents a watcher of one directory at a time, that lists the files in the directory once, then reports each
+ * file that is added, removed, or changed in it, so that the list can be kept up to date without listing the
+ * directory again. Changes are reported on the thread of the watcher.
+ *
+ * filter: represents the filter that the reported files must pass
+ * observer: represents the observer that changes are reported to
+ * service: represents the service that reports changes to the directory, or null until a directory is watched
+ * key: represents the registration of the watched directory with the service, or null if no directory is watched
+ */
+public class DirectoryWatcher {
+    private final FilenameFilter filter;
+    private final DirectoryObserver observer;
+    private WatchService service;
+    private WatchKey key;
+
+    // EFFECTS: constructs a watcher that reports the files passing the given filter to the given observer
+    public DirectoryWatcher(FilenameFilter filter, DirectoryObserver observer) {
+        this.filter = filter;
+        this.observer = observer;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops watching the previous directory, starts watching the given directory, and returns the files
+    //          in it that pass the filter; throws IOException if the directory cannot be watched
+    public synchronized List<File> watch(File directory) throws IOException {
+        stop();
+        if (service == null) {
+            service = FileSystems.getDefault().newWatchService();
+            Thread thread = new Thread(this::run, "Directory watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        // the directory is listed after it is registered, so that no file added in between is missed
+        key = directory.toPath().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        return list(directory);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops watching the directory, if any
+    public synchronized void stop() {
+        if (key != null) {
+            key.cancel();
+            key = null;
+        }
+    }
+
+    // EFFECTS: returns the files in the given directory that pass the filter, in directory order
+    private List<File> list(File directory) {
+        File[] files = directory.listFiles(filter);
+        return files == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(files));
+    }
+
+    // EFFECTS: reports the changes made to the watched directory until the service is closed
+    private void run() {
+        while (true) {
+            WatchKey changed;
+            try {
+                changed = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path directory = (Path) changed.watchable();
+            for (WatchEvent<?> event : changed.pollEvents()) {
+                synchronized (this) {
+                    if (changed != key) {
+                        break;
+                    }
+                }
+                report(directory, event);
+            }
+            changed.reset();
+        }
+    }
+
+    // EFFECTS: reports the given change made to the given directory to the observer
+    private void report(Path directory, WatchEvent<?> event) {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            observer.directoryRescanned(directory.toFile(), list(directory.toFile()));
+            return;
+        }
+
+        String name = event.context().toString();
+        if (!filter.accept(directory.toFile(), name)) {
+            return;
+        }
+        File file = directory.resolve(name).toFile();
+        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+            observer.fileAdded(file);
+        } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+            observer.fileRemoved(file);
+        } else {
+            observer.fileChanged(file);
+        }
+    }
+}
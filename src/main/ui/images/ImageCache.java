@@ -0,0 +1,188 @@
+package ui.images;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.File;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Represents a cache in memory of decoded photos, shared by every roll. The most recently used photos are kept
+ * until they take more bytes than the budget of the cache; older photos are then only kept through soft references,
+ * which the garbage collector clears when memory runs low, so the cache never holds more than its budget of photos
+ * that cannot be reclaimed. Photos are looked up by their path, modification time and size, so a photo that changed
+ * on disk is decoded again; the key last stored for each path is remembered, so a photo that was replaced or
+ * deleted can still be removed, and the older version of a replaced photo is dropped once the newer one is cached.
+ *
+ * DEFAULT_BUDGET: represents the number of bytes of photos kept by default
+ * budget: represents the number of bytes of photos that are kept
+ * recent: represents the kept photos by key, from least to most recently used
+ * soft: represents the photos over budget, which may be cleared by the garbage collector, by key
+ * cleared: represents the queue the soft references of photos are added to once they are cleared
+ * keysByPath: represents the key of the photo last stored for each path, by path of the photo
+ * size: represents the number of bytes of the kept photos
+ */
+public class ImageCache {
+    public static final long DEFAULT_BUDGET = 128L * 1024 * 1024;
+
+    private final long budget;
+    private final LinkedHashMap<String, BufferedImage> recent;
+    private final Map<String, KeyedReference> soft;
+    private final ReferenceQueue<BufferedImage> cleared;
+    private final Map<String, String> keysByPath;
+    private long size;
+
+    // EFFECTS: constructs a cache with the default budget
+    public ImageCache() {
+        this(DEFAULT_BUDGET);
+    }
+
+    // EFFECTS: constructs a cache that keeps up to budget bytes of photos
+    public ImageCache(long budget) {
+        this.budget = budget;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true);
+        this.soft = new HashMap<>();
+        this.cleared = new ReferenceQueue<>();
+        this.keysByPath = new HashMap<>();
+    }
+
+    // EFFECTS: returns the number of bytes of the kept photos
+    public synchronized long getSize() {
+        return size;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the decoded version of the current version of the given photo, or null if it is not cached;
+    //          drops an older version of the photo if it is cached
+    public synchronized BufferedImage get(File photo) {
+        String path = photo.getAbsolutePath();
+        String key = key(photo);
+        dropStale(path, key);
+        BufferedImage image = recent.get(key);
+        if (image == null) {
+            KeyedReference reference = soft.remove(key);
+            image = reference == null ? null : reference.get();
+            if (image != null) {
+                keep(path, key, image);
+            } else {
+                keysByPath.remove(path, key);
+            }
+        }
+        return image;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: caches the decoded version of the current version of the given photo as the most recently used photo,
+    //          replacing any older version of the photo
+    public synchronized void put(File photo, BufferedImage image) {
+        String path = photo.getAbsolutePath();
+        String key = key(photo);
+        dropStale(path, key);
+        discard(key);
+        keep(path, key, image);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the version of the given photo last stored in the cache, even if the photo has since been
+    //          replaced or deleted
+    public synchronized void remove(File photo) {
+        String key = keysByPath.remove(photo.getAbsolutePath());
+        if (key != null) {
+            discard(key);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops the version of the photo at the given path last stored in the cache, if it is not the version
+    //          with the given key
+    private void dropStale(String path, String key) {
+        String previous = keysByPath.get(path);
+        if (previous != null && !previous.equals(key)) {
+            keysByPath.remove(path);
+            discard(previous);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops the photo with the given key from the cache, if it is cached
+    private void discard(String key) {
+        soft.remove(key);
+        BufferedImage previous = recent.remove(key);
+        if (previous != null) {
+            size -= sizeOf(previous);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: keeps the given photo, stored at the given path, as the most recently used photo, and only keeps soft
+    //          references to the least recently used photos until the kept photos are within the budget
+    private void keep(String path, String key, BufferedImage image) {
+        purge();
+        recent.put(key, image);
+        keysByPath.put(path, key);
+        size += sizeOf(image);
+
+        Iterator<Map.Entry<String, BufferedImage>> it = recent.entrySet().iterator();
+        while (size > budget && it.hasNext()) {
+            Map.Entry<String, BufferedImage> eldest = it.next();
+            if (eldest.getValue() == image) {
+                break;
+            }
+            it.remove();
+            size -= sizeOf(eldest.getValue());
+            soft.put(eldest.getKey(), new KeyedReference(pathOf(eldest.getKey()), eldest.getKey(), eldest.getValue(),
+                    cleared));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the photos whose soft references have been cleared
+    private void purge() {
+        KeyedReference reference = (KeyedReference) cleared.poll();
+        while (reference != null) {
+            if (soft.remove(reference.key, reference)) {
+                keysByPath.remove(reference.path, reference.key);
+            }
+            reference = (KeyedReference) cleared.poll();
+        }
+    }
+
+    // EFFECTS: returns the key of the current version of the given photo
+    private static String key(File photo) {
+        return photo.getAbsolutePath() + "|" + photo.lastModified() + "|" + photo.length();
+    }
+
+    // EFFECTS: returns the path of the photo with the given key
+    private static String pathOf(String key) {
+        int size = key.lastIndexOf('|');
+        return key.substring(0, key.lastIndexOf('|', size - 1));
+    }
+
+    // EFFECTS: returns the number of bytes taken by the pixels of the given image
+    static long sizeOf(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+
+    /*
+     * Represents a soft reference to a photo that remembers the path and key of the photo once it has been cleared
+     *
+     * path: represents the path of the photo
+     * key: represents the key of the photo
+     */
+    private static class KeyedReference extends SoftReference<BufferedImage> {
+        private final String path;
+        private final String key;
+
+        // EFFECTS: constructs a soft reference to the given photo, added to the queue once it is cleared
+        KeyedReference(String path, String key, BufferedImage image, ReferenceQueue<BufferedImage> queue) {
+            super(image, queue);
+            this.path = path;
+            this.key = key;
+        }
+    }
+}
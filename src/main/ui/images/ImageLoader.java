@@ -0,0 +1,198 @@
+package ui.images;
+
+import net.coobird.thumbnailator.Thumbnailator;
+import persistence.ThumbnailCache;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Represents a pool of worker threads that decode photos and resize them for display in parallel,
+ * keeping the resized photos in a thumbnail cache so that each photo is only decoded once, and the
+ * most recently used resized photos in memory so that they can be shown again straight away
+ *
+ * WIDTH: represents the maximum width of a resized photo
+ * HEIGHT: represents the maximum height of a resized photo
+ * cache: represents the cache of resized photos on disk, or null if resized photos are not cached on disk
+ * memory: represents the cache of resized photos in memory
+ * executor: represents the worker threads, one for each available processor by default
+ */
+public class ImageLoader {
+    public static final int WIDTH = 800;
+    public static final int HEIGHT = 600;
+
+    private final ThumbnailCache cache;
+    private final ImageCache memory;
+    private final ExecutorService executor;
+
+    // EFFECTS: constructs a loader using the given caches, with one worker thread for each available processor
+    public ImageLoader(ThumbnailCache cache, ImageCache memory) {
+        this(cache, memory, Runtime.getRuntime().availableProcessors());
+    }
+
+    // REQUIRES: threads > 0
+    // EFFECTS: constructs a loader using the given caches, with the given number of worker threads;
+    //          the cache on disk may be null
+    public ImageLoader(ThumbnailCache cache, ImageCache memory, int threads) {
+        this.cache = cache;
+        this.memory = memory;
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "Image loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // EFFECTS: returns the resized photo if it is cached in memory, or null otherwise
+    public BufferedImage getCached(File file) {
+        return memory.get(file);
+    }
+
+    // EFFECTS: returns a future that completes with the resized photo, straight away if it is cached in memory,
+    //          or once a worker thread has loaded it from the cache on disk, or decoded and resized it; completes
+    //          exceptionally with an UncheckedIOException if the photo cannot be read
+    public CompletableFuture<BufferedImage> load(File file) {
+        BufferedImage cached = memory.get(file);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return CompletableFuture.supplyAsync(() -> loadIntoMemory(file), executor);
+    }
+
+    // EFFECTS: starts loading the resized photo into the cache in memory on a worker thread, unless it is already
+    //          cached, and returns a future that completes once it is cached; cancelling the future before a worker
+    //          thread picks it up skips the photo
+    public CompletableFuture<Void> prefetch(File file) {
+        return CompletableFuture.runAsync(() -> {
+            if (memory.get(file) == null) {
+                loadIntoMemory(file);
+            }
+        }, executor);
+    }
+
+    // EFFECTS: starts resizing the given photo to fit in the given size on a worker thread, from its thumbnail in
+    //          the cache on disk if there is one, and returns a future that completes with the resized photo, or
+    //          exceptionally with an UncheckedIOException if the photo cannot be read; the resized photo is not
+    //          cached in memory, and cancelling the future before a worker thread picks it up skips the photo
+    public CompletableFuture<BufferedImage> loadScaled(File file, int width, int height) {
+        return CompletableFuture.supplyAsync(
+                () -> Thumbnailator.createThumbnail(loadCached(file), width, height), executor);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the resized versions of the given photo, which has been changed or removed
+    public void invalidate(File file) {
+        memory.remove(file);
+        if (cache != null) {
+            try {
+                cache.remove(file);
+            } catch (IOException e) {
+                // a thumbnail that could not be deleted no longer matches the photo and is evicted eventually
+            }
+        }
+    }
+
+    // EFFECTS: loads the resized photo, caches it in memory, and returns it;
+    //          throws UncheckedIOException if the photo cannot be read
+    private BufferedImage loadIntoMemory(File file) {
+        BufferedImage resized = loadCached(file);
+        memory.put(file, resized);
+        return resized;
+    }
+
+    // EFFECTS: returns the resized photo from the cache, or decodes and resizes the photo and stores it in the
+    //          cache; throws UncheckedIOException if the photo cannot be read
+    private BufferedImage loadCached(File file) {
+        if (cache == null) {
+            return decode(file);
+        }
+        try {
+            BufferedImage cached = cache.get(file);
+            if (cached != null) {
+                return cached;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        BufferedImage resized = decode(file);
+        try {
+            cache.put(file, resized);
+        } catch (IOException e) {
+            // the photo can still be shown, it will be decoded again next time
+        }
+        return resized;
+    }
+
+    // EFFECTS: decodes the given photo and resizes it to fit in WIDTH by HEIGHT, reading only as many pixels as
+    //          needed: a thumbnail embedded in the photo is used if it is at least as large as the resized photo,
+    //          otherwise the photo is decoded with only every few rows and columns read;
+    //          throws UncheckedIOException if the photo cannot be read
+    public static BufferedImage decode(File file) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+            if (in == null) {
+                throw new IOException("Cannot open image: " + file);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + file);
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                BufferedImage image = readThumbnail(reader, width, height);
+                if (image == null) {
+                    ImageReadParam param = reader.getDefaultReadParam();
+                    int subsampling = subsampling(width, height);
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                    image = reader.read(0, param);
+                }
+                return Thumbnailator.createThumbnail(image, WIDTH, HEIGHT);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // EFFECTS: returns the largest thumbnail embedded in the photo being read if it is at least as large as the
+    //          photo of the given size resized to fit in WIDTH by HEIGHT, or null if there is no such thumbnail
+    private static BufferedImage readThumbnail(ImageReader reader, int width, int height) throws IOException {
+        if (!reader.readerSupportsThumbnails() || reader.getNumThumbnails(0) == 0) {
+            return null;
+        }
+
+        double scale = Math.min(1, Math.min((double) WIDTH / width, (double) HEIGHT / height));
+        int best = -1;
+        for (int i = 0; i < reader.getNumThumbnails(0); i++) {
+            if (reader.getThumbnailWidth(0, i) >= Math.floor(width * scale)
+                    && reader.getThumbnailHeight(0, i) >= Math.floor(height * scale)
+                    && (best == -1 || reader.getThumbnailWidth(0, i) < reader.getThumbnailWidth(0, best))) {
+                best = i;
+            }
+        }
+        return best == -1 ? null : reader.readThumbnail(0, best);
+    }
+
+    // EFFECTS: returns how many rows and columns to skip between each one that is read when decoding a photo of
+    //          the given size, so that the decoded photo is still about twice as large as it is once resized to fit
+    //          in WIDTH by HEIGHT, which is enough for the resize to smooth it out
+    static int subsampling(int width, int height) {
+        double ratio = Math.max((double) width / WIDTH, (double) height / HEIGHT);
+        return Math.max(1, (int) (ratio / 2));
+    }
+}
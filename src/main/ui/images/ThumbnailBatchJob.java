@@ -0,0 +1,213 @@
+package ui.images;
+
+import model.Film;
+import persistence.ThumbnailCache;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/*
+ * Represents a job that generates the thumbnails of every photo of a list of rolls in advance, on a
+ * number of worker threads, so that no roll is slow to show the first time it is viewed. Photos that already have
+ * a thumbnail in the cache are skipped, so a job that was cancelled or interrupted resumes where it stopped when
+ * it is run again. As the cache deletes its least recently used thumbnails once it is full, the job projects the
+ * size the thumbnails of every photo would take from the thumbnails it has generated so far, and stops before it
+ * would start deleting the thumbnails it has just generated.
+ *
+ * cache: represents the cache the thumbnails are stored in
+ * threads: represents the number of worker threads
+ * cancelled: represents whether the job has been cancelled
+ * overCapacity: represents whether the job stopped because the thumbnails would not fit in the cache
+ * projectedSize: represents the number of bytes the thumbnails of every photo are expected to take,
+ *                or 0 if no thumbnail has been generated yet
+ */
+public class ThumbnailBatchJob {
+    private final ThumbnailCache cache;
+    private final int threads;
+    private volatile boolean cancelled;
+    private volatile boolean overCapacity;
+    private volatile long projectedSize;
+
+    // REQUIRES: threads > 0
+    // EFFECTS: constructs a job that stores thumbnails in the given cache, using the given number of worker threads
+    public ThumbnailBatchJob(ThumbnailCache cache, int threads) {
+        this.cache = cache;
+        this.threads = threads;
+    }
+
+    // EFFECTS: returns the photos passing the given filter in the directory of each of the given rolls,
+    //          roll after roll
+    public static List<File> photosOf(List<Film> films, FilenameFilter filter) {
+        List<File> photos = new ArrayList<>();
+        for (Film f : films) {
+            File[] files = new File(f.getDirectory()).listFiles(filter);
+            if (files != null) {
+                photos.addAll(Arrays.asList(files));
+            }
+        }
+        return photos;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the job once the photos being processed are done
+    public void cancel() {
+        cancelled = true;
+    }
+
+    // EFFECTS: returns true if the job has been cancelled
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // EFFECTS: returns true if the job stopped because the thumbnails of every photo would take more space than
+    //          the capacity of the cache
+    public boolean isOverCapacity() {
+        return overCapacity;
+    }
+
+    // EFFECTS: returns the number of bytes the thumbnails of every photo are expected to take, or 0 if no thumbnail
+    //          has been generated yet
+    public long getProjectedSize() {
+        return projectedSize;
+    }
+
+    // EFFECTS: generates the thumbnails of the given photos that are not in the cache yet, reporting the progress
+    //          of the job to the given observer from the worker threads after each photo, and returns the progress
+    //          once every photo has been processed, the job has been cancelled, or the thumbnails are expected to
+    //          take more space than the capacity of the cache
+    public Progress run(List<File> photos, Consumer<Progress> observer) throws InterruptedException {
+        long start = System.nanoTime();
+        AtomicInteger generated = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong thumbnailBytes = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "Thumbnail batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (File photo : photos) {
+            executor.execute(() -> {
+                if (cancelled || overCapacity) {
+                    return;
+                }
+                try {
+                    if (cache.contains(photo)) {
+                        skipped.incrementAndGet();
+                    } else {
+                        long length = cache.put(photo, ImageLoader.decode(photo));
+                        bytes.addAndGet(photo.length());
+                        checkCapacity(thumbnailBytes.addAndGet(length), generated.incrementAndGet(),
+                                photos.size() - failed.get());
+                    }
+                } catch (IOException | UncheckedIOException e) {
+                    failed.incrementAndGet();
+                }
+                observer.accept(new Progress(photos.size(), generated.get(), skipped.get(), failed.get(),
+                        bytes.get(), System.nanoTime() - start));
+            });
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            cancelled = true;
+            executor.shutdownNow();
+            throw e;
+        }
+        return new Progress(photos.size(), generated.get(), skipped.get(), failed.get(),
+                bytes.get(), System.nanoTime() - start);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: projects the number of bytes the thumbnails of the given number of photos would take from the
+    //          thumbnails generated so far, and stops the job if they would take more than the capacity of the cache
+    private void checkCapacity(long thumbnailBytes, int generated, int photos) {
+        long projected = thumbnailBytes / generated * photos;
+        projectedSize = projected;
+        if (projected > cache.getCapacity()) {
+            overCapacity = true;
+        }
+    }
+
+    /*
+     * Represents how far a thumbnail batch job has got
+     *
+     * total: represents the number of photos the job processes
+     * generated: represents the number of thumbnails generated
+     * skipped: represents the number of photos skipped because their thumbnail was already in the cache
+     * failed: represents the number of photos that could not be read
+     * bytes: represents the number of bytes of photos read to generate the thumbnails
+     * elapsedNanos: represents the time since the job started, in nanoseconds
+     */
+    public static class Progress {
+        private final int total;
+        private final int generated;
+        private final int skipped;
+        private final int failed;
+        private final long bytes;
+        private final long elapsedNanos;
+
+        // EFFECTS: constructs the progress of a job with the given counts
+        Progress(int total, int generated, int skipped, int failed, long bytes, long elapsedNanos) {
+            this.total = total;
+            this.generated = generated;
+            this.skipped = skipped;
+            this.failed = failed;
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getGenerated() {
+            return generated;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        // EFFECTS: returns the number of photos processed so far
+        public int getProcessed() {
+            return generated + skipped + failed;
+        }
+
+        // EFFECTS: returns the number of thumbnails generated per second
+        public double getImagesPerSecond() {
+            return elapsedNanos == 0 ? 0 : generated / (elapsedNanos / 1e9);
+        }
+
+        // EFFECTS: returns the number of megabytes of photos read per second
+        public double getMegabytesPerSecond() {
+            return elapsedNanos == 0 ? 0 : bytes / (1024.0 * 1024.0) / (elapsedNanos / 1e9);
+        }
+
+        // EFFECTS: returns a summary of the progress
+        @Override
+        public String toString() {
+            return String.format("%d of %d photos, %d generated, %d already cached, %d failed, "
+                    + "%.1f images/s, %.1f MB/s", getProcessed(), total, generated, skipped, failed,
+                    getImagesPerSecond(), getMegabytesPerSecond());
+        }
+    }
+}
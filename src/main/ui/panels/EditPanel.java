@@ -139,7 +139,9 @@ public class EditPanel extends JPanel implements ActionListener {
     }
 
     // MODIFIES: this
-    // EFFECTS: edits the film of the app depending on which property is given
+    // EFFECTS: edits the film of the app depending on which property is given; the panels observing the film
+    //          display the change themselves, so the GUI is only updated when the photos of the film changed or
+    //          another film is to be displayed
     public void doEditFilm(String property, Film f, Boolean updateDifferentFilm) {
         if ("iso".equals(property)) {
             f.setIso(getIso());
@@ -163,6 +165,8 @@ public class EditPanel extends JPanel implements ActionListener {
             f.setDirectory(getDirectory());
             updateDifferentFilm = true;
         }
-        gui.update(updateDifferentFilm);
+        if (updateDifferentFilm) {
+            gui.update(true);
+        }
     }
 }
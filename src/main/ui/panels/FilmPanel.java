@@ -2,6 +2,7 @@ package ui.panels;
 
 import ui.AnalogArchiveApp;
 import model.Film;
+import model.FilmObserver;
 import ui.AnalogArchiveGUI;
 
 import javax.swing.*;
@@ -19,12 +20,15 @@ import java.util.HashMap;
  * gui: represents the current state of the GUI
  * textAreas: represents a Map of all the JTextAreas used to display properties of the current
  *            active film of the app
+ * film: represents the film displayed on the panel, which the panel observes so that only the property that
+ *       changed is displayed again, or null if no film is displayed
  */
-public class FilmPanel extends JPanel implements ActionListener {
+public class FilmPanel extends JPanel implements ActionListener, FilmObserver {
 
     private final AnalogArchiveApp app;
     private final AnalogArchiveGUI gui;
     private final HashMap<String, JTextArea> textAreas;
+    private Film film;
 
     // EFFECTS: constructs the panel with a GridLayout, and adds all required text to the panel
     public FilmPanel(AnalogArchiveApp app, AnalogArchiveGUI gui) {
@@ -83,18 +87,53 @@ public class FilmPanel extends JPanel implements ActionListener {
         });
     }
 
-    // EFFECTS: updates the panel with nw information when anything is changed
+    // MODIFIES: this
+    // EFFECTS: displays the active film of the app if it is not the film displayed yet; changes made to the
+    //          displayed film are then displayed as they happen
     public void update() {
-        Film film = app.getActiveFilm();
-        textAreas.get("name").setText("Film name: " + "\n" + film.getName());
-        textAreas.get("iso").setText("Film iso: " + "\n" + film.getIso());
-        textAreas.get("type").setText("Film type: " + "\n" + film.getType());
-        textAreas.get("camera").setText("Film camera: " + "\n" + film.getCamera());
-        textAreas.get("brand").setText("Film brand: " + "\n" + film.getBrand());
-        textAreas.get("expiry").setText("Film expiry: " + "\n" + film.getExpiry());
-        textAreas.get("developDate").setText("Film develop date: " + "\n" + film.getDevelopDate());
-        textAreas.get("developLocation").setText("Film develop location: " + "\n" + film.getDevelopLocation());
-        textAreas.get("directory").setText("Film directory: " + "\n" + film.getDirectory());
+        Film active = app.getActiveFilm();
+        if (active == film) {
+            return;
+        }
+        if (film != null) {
+            film.removeObserver(this);
+        }
+        film = active;
+        if (film != null) {
+            film.addObserver(this);
+            for (String property : new String[]{"name", "iso", "type", "camera", "brand", "expiry", "develop date",
+                    "develop location", "directory"}) {
+                filmChanged(film, property);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: displays the given property of the displayed film again
+    @Override
+    public void filmChanged(Film film, String property) {
+        if (film != this.film) {
+            return;
+        }
+        if ("name".equals(property)) {
+            textAreas.get("name").setText("Film name: " + "\n" + film.getName());
+        } else if ("iso".equals(property)) {
+            textAreas.get("iso").setText("Film iso: " + "\n" + film.getIso());
+        } else if ("type".equals(property)) {
+            textAreas.get("type").setText("Film type: " + "\n" + film.getType());
+        } else if (property.startsWith("camera")) {
+            textAreas.get("camera").setText("Film camera: " + "\n" + film.getCamera());
+        } else if ("brand".equals(property)) {
+            textAreas.get("brand").setText("Film brand: " + "\n" + film.getBrand());
+        } else if ("expiry".equals(property)) {
+            textAreas.get("expiry").setText("Film expiry: " + "\n" + film.getExpiry());
+        } else if ("develop date".equals(property)) {
+            textAreas.get("developDate").setText("Film develop date: " + "\n" + film.getDevelopDate());
+        } else if ("develop location".equals(property)) {
+            textAreas.get("developLocation").setText("Film develop location: " + "\n" + film.getDevelopLocation());
+        } else if ("directory".equals(property)) {
+            textAreas.get("directory").setText("Film directory: " + "\n" + film.getDirectory());
+        }
     }
 
     // EFFECTS: allows the user to set another active film from the current collection of films
@@ -5,7 +5,10 @@ import model.*;
 import ui.AnalogArchiveApp;
 import ui.AnalogArchiveGUI;
 import ui.tables.CameraTable;
+import ui.tables.CameraTableModel;
 import ui.tables.FilmTable;
+import ui.tables.FilmTableModel;
+import ui.tables.FilterField;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -17,6 +20,8 @@ import java.awt.event.ActionListener;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /*
  * Represents a JPanel that is displayed on the right side of the GUI, and is used to
@@ -27,6 +32,10 @@ import java.util.ArrayList;
  * gui: represents the current state of the GUI
  * filmTable: represents the table displaying all of the films in the collection
  * camerasTables: represents the table displaying all of the cameras in the collection
+ * filmModel: represents the rows of the film table, read from the film collection
+ * cameraModel: represents the rows of the camera table, read from the camera collection
+ * filmFilter: represents the field filtering the film table as the user types
+ * cameraFilter: represents the field filtering the camera table as the user types
  * filmListScrollPane: is used to allow the user to scroll through the list of films displayed
  * cameraListScrollPane: is used to allow the user to scroll through the list of cameras displayed
  *
@@ -38,6 +47,10 @@ public class ListPanel extends JPanel implements ActionListener {
 
     private FilmTable filmTable;
     private CameraTable cameraTable;
+    private FilmTableModel filmModel;
+    private CameraTableModel cameraModel;
+    private FilterField<Film> filmFilter;
+    private FilterField<Camera> cameraFilter;
 
     private JScrollPane filmListScrollPane;
     private JScrollPane cameraListScrollPane;
@@ -61,15 +74,11 @@ public class ListPanel extends JPanel implements ActionListener {
 
     // EFFECTS: initializes the film table with required columns on the table
     private void initFilmTable() {
-        DefaultTableModel model = new DefaultTableModel();
-
-        model.addColumn("Name");
-        model.addColumn("Brand");
-        model.addColumn("ISO");
-
-        filmTable = new FilmTable(model);
+        filmModel = new FilmTableModel(app.getFilmCollection());
+        filmTable = new FilmTable(filmModel);
+        filmFilter = new FilterField<>(filmTable, this::searchFilms, this::filmMatches, filmModel::getFilm);
         JPanel filmTablePanel = new JPanel(new BorderLayout());
-        filmTablePanel.add(filmTable.getTableHeader(), BorderLayout.PAGE_START);
+        filmTablePanel.add(withFilter(filmFilter, filmTable), BorderLayout.PAGE_START);
         filmTablePanel.add(filmTable);
 
         filmListScrollPane = new JScrollPane(filmTablePanel);
@@ -81,17 +90,13 @@ public class ListPanel extends JPanel implements ActionListener {
 
     // EFFECTS: initializes the camera table with required columns on the table
     private void initCameraTable() {
-        DefaultTableModel model;
-
-        model = new DefaultTableModel();
-        model.addColumn("Manufacturer");
-        model.addColumn("Name");
-        model.addColumn("Film Type");
-
-        cameraTable = new CameraTable(model);
+        cameraModel = new CameraTableModel(app.getCameraCollection());
+        cameraTable = new CameraTable(cameraModel);
+        cameraFilter = new FilterField<>(cameraTable, this::searchCameras, this::cameraMatches,
+                cameraModel::getCamera);
         JPanel cameraListPanel = new JPanel(new BorderLayout());
 
-        cameraListPanel.add(cameraTable.getTableHeader(), BorderLayout.PAGE_START);
+        cameraListPanel.add(withFilter(cameraFilter, cameraTable), BorderLayout.PAGE_START);
         cameraListPanel.add(cameraTable);
 
         cameraListScrollPane = new JScrollPane(cameraListPanel);
@@ -101,6 +106,53 @@ public class ListPanel extends JPanel implements ActionListener {
         addButtons(cameraListPanel, "Camera");
     }
 
+    // EFFECTS: returns a panel showing the given filter field above the header of the given table
+    private JPanel withFilter(JTextField filter, JTable table) {
+        filter.setToolTipText("Type to filter the list");
+        filter.setBorder(BorderFactory.createCompoundBorder(new EmptyBorder(5, 5, 5, 5), filter.getBorder()));
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.add(filter, BorderLayout.NORTH);
+        panel.add(table.getTableHeader(), BorderLayout.SOUTH);
+        return panel;
+    }
+
+    // EFFECTS: returns the films matching the given text, including the films with that ISO if the text is
+    //          a number; called on the event dispatch thread by the film filter
+    private List<Film> searchFilms(String text) {
+        FilmCollection films = app.getFilmCollection();
+        if (films == null) {
+            return Collections.emptyList();
+        }
+        List<Film> matching = films.search(text);
+        if (text.matches("\\d{1,9}")) {
+            matching.addAll(films.query(FilmQuery.isoEqualTo(Integer.parseInt(text))));
+        }
+        return matching;
+    }
+
+    // EFFECTS: returns true if the given film would be returned by searchFilms(text); called on the event dispatch
+    //          thread by the film filter when the film is added or changed
+    private boolean filmMatches(Film film, String text) {
+        FilmCollection films = app.getFilmCollection();
+        if (films == null) {
+            return false;
+        }
+        return films.matches(film, text) || text.matches("\\d{1,9}") && film.getIso() == Integer.parseInt(text);
+    }
+
+    // EFFECTS: returns the cameras matching the given text; called on the event dispatch thread by the camera filter
+    private List<Camera> searchCameras(String text) {
+        CameraCollection cameras = app.getCameraCollection();
+        return cameras == null ? Collections.emptyList() : cameras.search(text);
+    }
+
+    // EFFECTS: returns true if the given camera would be returned by searchCameras(text); called on the event
+    //          dispatch thread by the camera filter when the camera is added or changed
+    private boolean cameraMatches(Camera camera, String text) {
+        CameraCollection cameras = app.getCameraCollection();
+        return cameras != null && cameras.matches(camera, text);
+    }
+
     // EFFECTS: adds "add" "remove" and "filter" buttons to a panel
     private void addButtons(JPanel cameraListPanel, String s) {
         JPanel addRemoveButtons = new JPanel(new GridLayout(1, 2, 10, 10));
@@ -514,61 +566,11 @@ public class ListPanel extends JPanel implements ActionListener {
                 JOptionPane.ERROR_MESSAGE);
     }
 
-    // EFFECTS: returns array of film data from the collection
-    private String[][] getFilmData() {
-        String[][] data;
-
-        try {
-            FilmCollection fc = app.getFilmCollection();
-            int size = fc.getSize();
-            data = new String[size][3];
-
-            int x = 0;
-            for (Film f : fc.getCollection()) {
-                data[x][0] = f.getName();
-                data[x][1] = f.getBrand();
-                data[x][2] = Integer.toString(f.getIso());
-                x++;
-            }
-        } catch (NullPointerException e) {
-            data = null;
-        }
-        return data;
-    }
-
-    // EFFECTS: returns array of camera data from the collection
-    private String[][] getCameraData() {
-        String[][] data;
-        CameraCollection cc = app.getCameraCollection();
-        int size = cc.getSize();
-        data = new String[size][3];
-
-        int x = 0;
-        for (Camera c : cc.getCollection()) {
-            data[x][0] = c.getManufacturer();
-            data[x][1] = c.getName();
-            data[x][2] = c.getFilmType();
-            x++;
-        }
-        return data;
-    }
-
-    // EFFECTS: updates the panel with new information whenever a film or camera is added or removed.
+    // EFFECTS: updates the panel whenever the archive is replaced; films and cameras added to, removed from, or
+    //          changed in the collections are shown as they happen
     public void update() {
-
-        String[][] filmData = getFilmData();
-        DefaultTableModel model = (DefaultTableModel) filmTable.getModel();
-        model.setRowCount(0);
-        for (int x = 0; x < filmData.length; x++) {
-            model.insertRow(x, filmData[x]);
-        }
-
-        String[][] cameraData = getCameraData();
-        model = (DefaultTableModel) cameraTable.getModel();
-        model.setRowCount(0);
-        for (int x = 0; x < cameraData.length; x++) {
-            model.insertRow(x, cameraData[x]);
-        }
+        filmModel.setCollection(app.getFilmCollection());
+        cameraModel.setCollection(app.getCameraCollection());
     }
 
     // EFFECTS: handles all action commands from the panel
@@ -1,9 +1,13 @@
 package ui.panels;
 
 import ui.AnalogArchiveApp;
-import net.coobird.thumbnailator.Thumbnailator;
+import ui.images.BufferedDirectoryObserver;
+import ui.images.ContactSheetPanel;
+import ui.images.DirectoryObserver;
+import ui.images.DirectoryWatcher;
+import ui.images.ImageCache;
+import ui.images.ImageLoader;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -13,7 +17,20 @@ import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /*
  * Represents a panel displayed in the middle of the GUI that displays photos from the current active film
@@ -21,16 +38,28 @@ import java.util.Objects;
  * EXTENSIONS: represents an array of extensions accepted as images
  * IMAGE_FILTER: represents a filter that is used to filter all files in a given
  *               directory with files ending with anything in the EXTENSIONS array
+ * PREFETCH: represents the number of images ahead of and behind the current image that are decoded in advance
  *  app: represents the current state of the app, including all of the properties of the archive
- *  imageList: represents a list of JLabels used to hold all images found in the directory
+ *  imageList: represents a list of all image files found in the directory, in directory order
  *  dir: represents the File at given directory, usually a folder
- *  activeImage: represents the image that is currently displayed to the user
+ *  activeImage: represents the label that displays the current image to the user
+ *  activeIndex: represents the index in imageList of the image that is currently displayed to the user
+ *  loader: represents the worker threads that decode and resize the images, and the caches of resized images
+ *  loading: represents the images around the current image that are being decoded in advance
+ *  watcher: represents the watcher that reports images added to, removed from, or changed in the directory
+ *  changes: represents the changes reported by the watcher, held back while the directory is being listed
+ *  listingExecutor: represents the thread that lists the directory, one directory after another
+ *  listing: represents the listing of the current directory, or null if no directory has been listed
+ *  progress: represents the progress bar showing how far listing the directory and decoding the images has got
+ *  contactSheet: represents the grid of small versions of every image, shown instead of the current image
+ *  views: represents the card showing either the current image or the contact sheet
+ *  sheetButton: represents the button switching between the current image and the contact sheet
  *
  */
 public class PhotoPanel extends JPanel implements ActionListener {
 
-    static final String[] EXTENSIONS = new String[]{"gif", "png", "jpg", "jpeg"};
-    static final FilenameFilter IMAGE_FILTER = (dir, name) -> {
+    public static final String[] EXTENSIONS = new String[]{"gif", "png", "jpg", "jpeg"};
+    public static final FilenameFilter IMAGE_FILTER = (dir, name) -> {
         for (final String ext : EXTENSIONS) {
             if (name.endsWith("." + ext)) {
                 return (true);
@@ -38,18 +67,48 @@ public class PhotoPanel extends JPanel implements ActionListener {
         }
         return (false);
     };
+    static final int PREFETCH = 3;
     private final AnalogArchiveApp app;
-    ArrayList<JLabel> imageList;
+    ArrayList<File> imageList;
     private File dir;
-    private JLabel activeImage;
+    private final JLabel activeImage;
+    private int activeIndex;
+    private final ImageLoader loader;
+    private final Map<File, CompletableFuture<Void>> loading;
+    private final DirectoryWatcher watcher;
+    private final BufferedDirectoryObserver changes;
+    private final ExecutorService listingExecutor;
+    private SwingWorker<List<File>, Void> listing;
+    private final JProgressBar progress;
+    private final ContactSheetPanel contactSheet;
+    private final JPanel views;
+    private final JToggleButton sheetButton;
 
-    // EFFECTS: constructs the panel with "next" and "previous" buttons
+    // EFFECTS: constructs the panel with "next" and "previous" buttons, and a button switching between the current
+    //          image and the contact sheet
     public PhotoPanel(AnalogArchiveApp app) {
         this.app = app;
 
         setLayout(new BorderLayout());
 
         imageList = new ArrayList<>();
+        loader = new ImageLoader(app.getThumbnailCache(), new ImageCache());
+        loading = new HashMap<>();
+        changes = new BufferedDirectoryObserver(new ImageDirectoryObserver());
+        watcher = new DirectoryWatcher(IMAGE_FILTER, changes);
+        listingExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "Photo directory listing");
+            thread.setDaemon(true);
+            return thread;
+        });
+        activeImage = new JLabel("", SwingConstants.CENTER);
+        progress = new JProgressBar(JProgressBar.HORIZONTAL);
+        progress.setStringPainted(true);
+        progress.setVisible(false);
+        contactSheet = new ContactSheetPanel(loader, this::select);
+        views = new JPanel(new CardLayout());
+        views.add(activeImage, "image");
+        views.add(new JScrollPane(contactSheet), "sheet");
 
         try {
             dir = new File(app.getActiveFilm().getDirectory());
@@ -57,7 +116,6 @@ public class PhotoPanel extends JPanel implements ActionListener {
         } catch (NullPointerException e) {
             //
         }
-        activeImage = new JLabel();
 
         JButton nextButton = new JButton("next");
         nextButton.addActionListener(this);
@@ -67,72 +125,331 @@ public class PhotoPanel extends JPanel implements ActionListener {
         previousButton.addActionListener(this);
         previousButton.setActionCommand("previous");
 
+        sheetButton = new JToggleButton("contact sheet");
+        sheetButton.addActionListener(this);
+        sheetButton.setActionCommand("sheet");
+
+        add(sheetButton, BorderLayout.NORTH);
         add(nextButton, BorderLayout.EAST);
         add(previousButton, BorderLayout.WEST);
-        add(activeImage, BorderLayout.CENTER);
+        add(views, BorderLayout.CENTER);
+        add(progress, BorderLayout.SOUTH);
     }
 
-    // EFFECTS: loads all images from the directory
+    // MODIFIES: this
+    // EFFECTS: starts listing the images in the directory, in directory order, in the background, and shows the
+    //          first one once the directory has been listed; only the images around the one being shown are
+    //          decoded, so the time taken does not depend on the number of images. The directory is then watched,
+    //          and the list is kept up to date as images are added, removed, or changed in it; the changes made
+    //          while the directory is being listed are only applied once the listing is shown. Listing the previous
+    //          directory is cancelled if it has not finished yet.
     public void loadImages() {
+        if (listing != null) {
+            listing.cancel(true);
+        }
+        changes.hold();
         imageList.clear();
-        if (dir.isDirectory()) {
-            for (File f : Objects.requireNonNull(dir.listFiles(IMAGE_FILTER))) {
+        contactSheet.setPhotos(imageList);
+        show(0);
+
+        File directory = dir;
+        listing = new SwingWorker<List<File>, Void>() {
+            // EFFECTS: watches the directory and returns the images in it, on the listing thread
+            @Override
+            protected List<File> doInBackground() {
+                if (!directory.isDirectory()) {
+                    watcher.stop();
+                    return new ArrayList<>();
+                }
+                try {
+                    return watcher.watch(directory);
+                } catch (IOException e) {
+                    watcher.stop();
+                    return new ArrayList<>(Arrays.asList(Objects.requireNonNull(directory.listFiles(IMAGE_FILTER))));
+                }
+            }
+
+            // MODIFIES: PhotoPanel.this
+            // EFFECTS: shows the first image of the directory, then applies the changes made to the directory
+            //          while it was being listed, on the event dispatch thread
+            @Override
+            protected void done() {
+                if (isCancelled() || directory != dir) {
+                    return;
+                }
                 try {
-                    BufferedImage resized = Thumbnailator.createThumbnail(ImageIO.read(f), 800, 600);
+                    imageList.addAll(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    imageList.clear();
+                }
+                contactSheet.setPhotos(imageList);
+                show(0);
+                changes.release();
+            }
+        };
+        progress.setIndeterminate(true);
+        progress.setString("Listing photos");
+        progress.setVisible(true);
+        listingExecutor.execute(listing);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows how many of the images around the current image have been decoded,
+    //          and hides the progress bar once they all have
+    private void updateProgress() {
+        if (listing != null && !listing.isDone()) {
+            return;
+        }
+        int decoded = 0;
+        for (CompletableFuture<Void> image : loading.values()) {
+            if (image.isDone()) {
+                decoded++;
+            }
+        }
+        progress.setIndeterminate(false);
+        progress.setMaximum(loading.size());
+        progress.setValue(decoded);
+        progress.setString("Loading photos " + decoded + " of " + loading.size());
+        progress.setVisible(decoded < loading.size());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the given image to the end of the list, and shows it if it is the only image
+    private void imageAdded(File f) {
+        if (imageList.contains(f)) {
+            imageChanged(f);
+            return;
+        }
+        imageList.add(f);
+        contactSheet.setPhotos(imageList);
+        if (imageList.size() == 1) {
+            show(0);
+        } else {
+            prefetchAround(activeIndex);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the given image from the list, showing the next image if it was the image being shown
+    private void imageRemoved(File f) {
+        int index = imageList.indexOf(f);
+        if (index == -1) {
+            return;
+        }
+        imageList.remove(index);
+        contactSheet.setPhotos(imageList);
+        forget(f);
+        if (index < activeIndex) {
+            activeIndex--;
+            prefetchAround(activeIndex);
+        } else if (index == activeIndex) {
+            show(Math.min(activeIndex, imageList.size() - 1));
+        } else {
+            prefetchAround(activeIndex);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes the given image again, showing it again if it is the image being shown
+    private void imageChanged(File f) {
+        int index = imageList.indexOf(f);
+        if (index == -1) {
+            return;
+        }
+        forget(f);
+        contactSheet.invalidate(f);
+        if (index == activeIndex) {
+            show(activeIndex);
+        } else {
+            prefetchAround(activeIndex);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the decoded versions of the given image, and skips decoding it if it has not been decoded yet
+    private void forget(File f) {
+        CompletableFuture<Void> decoding = loading.remove(f);
+        if (decoding != null) {
+            decoding.cancel(false);
+        }
+        loader.invalidate(f);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the image at the given index, or nothing if there is no image at the index; the image is
+    //          shown straight away if it is cached in memory, and once it has been decoded otherwise.
+    //          Starts decoding the PREFETCH images ahead of and behind the index in parallel, and skips the images
+    //          that are no longer around the index and have not been decoded yet. A decoding that was cancelled or
+    //          forgotten because the image changed on disk shows nothing, as the image is then shown again.
+    private void show(int index) {
+        activeIndex = index;
+        prefetchAround(index);
+        activeImage.setIcon(null);
+        if (index < 0 || index >= imageList.size()) {
+            activeImage.setText(null);
+            return;
+        }
+
+        File f = imageList.get(index);
+        BufferedImage cached = loader.getCached(f);
+        if (cached != null) {
+            activeImage.setText(null);
+            activeImage.setIcon(new ImageIcon(cached));
+            return;
+        }
+
+        activeImage.setText("Loading " + f.getName());
+        CompletableFuture<Void> decoding = loading.get(f);
+        CompletableFuture<BufferedImage> image = decoding.thenCompose(decoded -> loader.load(f));
+        image.whenComplete((resized, exception) -> SwingUtilities.invokeLater(() -> {
+            if (activeIndex != index || index >= imageList.size() || imageList.get(index) != f
+                    || loading.get(f) != decoding) {
+                return;
+            }
+            if (resized != null) {
+                activeImage.setText(null);
+                activeImage.setIcon(new ImageIcon(resized));
+            } else if (!isCancellation(exception)) {
+                activeImage.setText(f.getName() + " could not be read");
+            }
+        }));
+    }
 
-                    ImageIcon ii = new ImageIcon(resized);
-                    imageList.add(new JLabel(ii));
-                } catch (final IOException e) {
-                    //
+    // EFFECTS: returns true if the given exception, or the exception it wraps, reports that the decoding of an image
+    //          was cancelled, as happens when the image changes on disk while it is being decoded
+    private static boolean isCancellation(Throwable exception) {
+        return exception instanceof CancellationException
+                || exception instanceof CompletionException && exception.getCause() instanceof CancellationException;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts decoding the image at the given index and the images within PREFETCH of it that are not
+    //          being decoded yet, nearest first, and skips the images outside of that window that have not been
+    //          decoded yet
+    private void prefetchAround(int index) {
+        Set<File> window = new HashSet<>();
+        for (int distance = 0; distance <= PREFETCH; distance++) {
+            for (int i : new int[]{index + distance, index - distance}) {
+                if (i >= 0 && i < imageList.size()) {
+                    File f = imageList.get(i);
+                    window.add(f);
+                    if (!loading.containsKey(f)) {
+                        CompletableFuture<Void> decoding = loader.prefetch(f);
+                        loading.put(f, decoding);
+                        decoding.whenComplete((decoded, exception) -> SwingUtilities.invokeLater(this::updateProgress));
+                    }
                 }
             }
-            if (!imageList.isEmpty()) {
-                activeImage = imageList.get(0);
-            } else {
-                activeImage = null;
+        }
+
+        Iterator<Map.Entry<File, CompletableFuture<Void>>> it = loading.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<File, CompletableFuture<Void>> entry = it.next();
+            if (!window.contains(entry.getKey())) {
+                entry.getValue().cancel(false);
+                it.remove();
             }
         }
+        updateProgress();
     }
 
+    // REQUIRES: called on the event dispatch thread
+    // MODIFIES: this
     // EFFECTS: updates the panel with images from new directory
     public void update() {
-        if (activeImage != null) {
-            remove(activeImage);
-        }
         try {
             dir = new File(app.getActiveFilm().getDirectory());
             loadImages();
         } catch (NullPointerException e) {
-            imageList = new ArrayList<>();
-        }
-
-        if (!imageList.isEmpty()) {
-            activeImage = imageList.get(0);
-            add(activeImage);
-        } else {
-            activeImage = null;
+            if (listing != null) {
+                listing.cancel(true);
+            }
+            watcher.stop();
+            imageList.clear();
+            contactSheet.setPhotos(imageList);
+            show(0);
         }
 
         revalidate();
         repaint();
     }
 
+    // MODIFIES: this
+    // EFFECTS: shows the image at the given index instead of the contact sheet
+    private void select(int index) {
+        show(index);
+        sheetButton.setSelected(false);
+        ((CardLayout) views.getLayout()).show(views, "image");
+    }
+
     // EFFECTS: handles all action command for the panel
     @Override
     public void actionPerformed(ActionEvent e) {
         String command = e.getActionCommand();
-        if (command.equals("next")) {
-            remove(activeImage);
-            int index = imageList.indexOf(activeImage);
-            activeImage = imageList.get(index + 1);
-            add(activeImage);
-        } else if (command.equals("previous")) {
-            remove(activeImage);
-            int index = imageList.indexOf(activeImage);
-            activeImage = imageList.get(index - 1);
-            add(activeImage);
+        if (command.equals("next") && activeIndex + 1 < imageList.size()) {
+            show(activeIndex + 1);
+        } else if (command.equals("previous") && activeIndex > 0) {
+            show(activeIndex - 1);
+        } else if (command.equals("sheet")) {
+            ((CardLayout) views.getLayout()).show(views, sheetButton.isSelected() ? "sheet" : "image");
         }
         revalidate();
         repaint();
     }
+
+    /*
+     * Reports the changes made to the directory to the panel on the event dispatch thread,
+     * ignoring the changes that are reported late for a directory that is no longer shown
+     */
+    private class ImageDirectoryObserver implements DirectoryObserver {
+
+        // EFFECTS: adds the given image to the panel
+        @Override
+        public void fileAdded(File file) {
+            SwingUtilities.invokeLater(() -> {
+                if (file.getParentFile().equals(dir)) {
+                    imageAdded(file);
+                }
+            });
+        }
+
+        // EFFECTS: removes the given image from the panel
+        @Override
+        public void fileRemoved(File file) {
+            SwingUtilities.invokeLater(() -> {
+                if (file.getParentFile().equals(dir)) {
+                    imageRemoved(file);
+                }
+            });
+        }
+
+        // EFFECTS: decodes the given image again
+        @Override
+        public void fileChanged(File file) {
+            SwingUtilities.invokeLater(() -> {
+                if (file.getParentFile().equals(dir)) {
+                    imageChanged(file);
+                }
+            });
+        }
+
+        // EFFECTS: adds and removes images so that the panel shows the given images of the directory
+        @Override
+        public void directoryRescanned(File directory, List<File> files) {
+            SwingUtilities.invokeLater(() -> {
+                if (directory.equals(dir)) {
+                    for (File f : new ArrayList<>(imageList)) {
+                        if (!files.contains(f)) {
+                            imageRemoved(f);
+                        }
+                    }
+                    for (File f : files) {
+                        if (!imageList.contains(f)) {
+                            imageAdded(f);
+                        }
+                    }
+                }
+            });
+        }
+    }
 }
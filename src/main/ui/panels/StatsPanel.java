@@ -0,0 +1,100 @@
+package ui.panels;
+
+import model.ArchiveStatistics;
+import model.CollectionObserver;
+import model.Film;
+import model.FilmCollection;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.util.Map;
+
+/*
+ * Represents a panel that displays statistics over the film collection: the number of rolls per brand, ISO, camera
+ * and developing location, how many rolls were expired when developed, and how long past expiry rolls were
+ * developed at each location. The statistics are kept up to date as film is added, removed, or edited.
+ *
+ * films: represents the film collection the statistics are computed over
+ * statistics: represents the statistics of the collection
+ * textArea: represents the text area displaying the statistics
+ */
+public class StatsPanel extends JPanel implements CollectionObserver<Film> {
+
+    private final FilmCollection films;
+    private final ArchiveStatistics statistics;
+    private final JTextArea textArea;
+
+    // EFFECTS: constructs the panel displaying the statistics of the given film collection
+    public StatsPanel(FilmCollection films) {
+        super(new BorderLayout());
+        this.films = films;
+        this.statistics = new ArchiveStatistics(films);
+
+        textArea = new JTextArea();
+        textArea.setEditable(false);
+        textArea.setBorder(new EmptyBorder(10, 20, 10, 20));
+        add(new JScrollPane(textArea), BorderLayout.CENTER);
+        setPreferredSize(new Dimension(400, 500));
+
+        films.addObserver(this);
+        refresh();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops keeping the statistics up to date with the collection
+    public void detach() {
+        films.removeObserver(this);
+        statistics.detach();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: displays the current statistics
+    private void refresh() {
+        StringBuilder text = new StringBuilder();
+        text.append("Rolls: ").append(statistics.getRollCount()).append("\n");
+        text.append(String.format("Expired when developed: %d of %d dated rolls (%.0f%%)%n",
+                statistics.getExpiredWhenDevelopedCount(), statistics.getDatedCount(),
+                statistics.getExpiredWhenDevelopedRatio() * 100));
+        appendCounts(text, "Rolls per brand", statistics.getRollsByBrand());
+        appendCounts(text, "Rolls per ISO", statistics.getRollsByIso());
+        appendCounts(text, "Rolls per camera", statistics.getRollsByCamera());
+        appendCounts(text, "Rolls per developing location", statistics.getRollsByDevelopLocation());
+
+        text.append("\nAverage days developed past expiry, per location\n");
+        for (Map.Entry<String, Double> entry : statistics.getAverageDaysPastExpiryByLocation().entrySet()) {
+            text.append(String.format("  %s: %.1f%n", entry.getKey(), entry.getValue()));
+        }
+        textArea.setText(text.toString());
+        textArea.setCaretPosition(0);
+    }
+
+    // EFFECTS: appends the given title and counts to the given text
+    private void appendCounts(StringBuilder text, String title, Map<?, Integer> counts) {
+        text.append("\n").append(title).append("\n");
+        for (Map.Entry<?, Integer> entry : counts.entrySet()) {
+            text.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: displays the statistics again now that film has been added
+    @Override
+    public void itemAdded(Film item, int index) {
+        refresh();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: displays the statistics again now that film has been removed
+    @Override
+    public void itemRemoved(Film item, int index) {
+        refresh();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: displays the statistics again now that film has been changed
+    @Override
+    public void itemChanged(Film item, String property) {
+        refresh();
+    }
+}
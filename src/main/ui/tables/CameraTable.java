@@ -1,12 +1,11 @@
 package ui.tables;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 
 public class CameraTable extends JTable {
 
-    public CameraTable(DefaultTableModel model) {
+    public CameraTable(CameraTableModel model) {
         super(model);
 
         setPreferredSize(new Dimension(300, 0));
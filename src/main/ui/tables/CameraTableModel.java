@@ -0,0 +1,102 @@
+package ui.tables;
+
+import model.Camera;
+import model.CameraCollection;
+import model.CollectionObserver;
+
+import javax.swing.table.AbstractTableModel;
+
+/*
+ * Represents the rows of a camera table, read straight from a camera collection rather than copied into the table.
+ * The model observes the collection, so only the rows that were added, removed, or changed are reported to the
+ * table, and each cell is only read when the table paints it.
+ *
+ * COLUMNS: represents the names of the columns of the table
+ * cameras: represents the collection shown in the table, or null if there is none
+ */
+public class CameraTableModel extends AbstractTableModel implements CollectionObserver<Camera> {
+    public static final String[] COLUMNS = new String[]{"Manufacturer", "Name", "Film Type"};
+
+    private CameraCollection cameras;
+
+    // EFFECTS: constructs a model showing the given collection, which may be null
+    public CameraTableModel(CameraCollection cameras) {
+        setCollection(cameras);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the given collection, which may be null, in place of the current one;
+    //          does nothing if it is already shown
+    public void setCollection(CameraCollection cameras) {
+        if (cameras == this.cameras) {
+            return;
+        }
+        if (this.cameras != null) {
+            this.cameras.removeObserver(this);
+        }
+        this.cameras = cameras;
+        if (cameras != null) {
+            cameras.addObserver(this);
+        }
+        fireTableDataChanged();
+    }
+
+    // REQUIRES: row must be smaller than the number of rows
+    // EFFECTS: returns the camera shown in the given row
+    public Camera getCamera(int row) {
+        return cameras.getCamera(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return cameras == null ? 0 : cameras.getSize();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    // EFFECTS: returns the value of the given column of the camera in the given row
+    @Override
+    public Object getValueAt(int row, int column) {
+        Camera c = cameras.getCamera(row);
+        switch (column) {
+            case 0:
+                return c.getManufacturer();
+            case 1:
+                return c.getName();
+            default:
+                return c.getFilmType();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reports the row of the given camera as inserted
+    @Override
+    public void itemAdded(Camera item, int index) {
+        fireTableRowsInserted(index, index);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reports the row of the given camera as deleted
+    @Override
+    public void itemRemoved(Camera item, int index) {
+        fireTableRowsDeleted(index, index);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reports the row of the given camera as updated
+    @Override
+    public void itemChanged(Camera item, String property) {
+        int index = cameras.indexOf(item);
+        if (index != -1) {
+            fireTableRowsUpdated(index, index);
+        }
+    }
+}
@@ -2,12 +2,11 @@ package ui.tables;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 
 public class FilmTable extends JTable {
 
-    public FilmTable(DefaultTableModel model) {
+    public FilmTable(FilmTableModel model) {
         super(model);
 
         setPreferredSize(new Dimension(300, 0));
@@ -0,0 +1,108 @@
+package ui.tables;
+
+import model.CollectionObserver;
+import model.Film;
+import model.FilmCollection;
+
+import javax.swing.table.AbstractTableModel;
+
+/*
+ * Represents the rows of a film table, read straight from a film collection rather than copied into the table.
+ * The model observes the collection, so only the rows that were added, removed, or changed are reported to the
+ * table, and each cell is only read when the table paints it; a film that has not been decoded yet is decoded once
+ * its row is scrolled into view.
+ *
+ * COLUMNS: represents the names of the columns of the table
+ * films: represents the collection shown in the table, or null if there is none
+ */
+public class FilmTableModel extends AbstractTableModel implements CollectionObserver<Film> {
+    public static final String[] COLUMNS = new String[]{"Name", "Brand", "ISO"};
+
+    private FilmCollection films;
+
+    // EFFECTS: constructs a model showing the given collection, which may be null
+    public FilmTableModel(FilmCollection films) {
+        setCollection(films);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the given collection, which may be null, in place of the current one;
+    //          does nothing if it is already shown
+    public void setCollection(FilmCollection films) {
+        if (films == this.films) {
+            return;
+        }
+        if (this.films != null) {
+            this.films.removeObserver(this);
+        }
+        this.films = films;
+        if (films != null) {
+            films.addObserver(this);
+        }
+        fireTableDataChanged();
+    }
+
+    // REQUIRES: row must be smaller than the number of rows
+    // EFFECTS: returns the film shown in the given row
+    public Film getFilm(int row) {
+        return films.getRoll(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return films == null ? 0 : films.getSize();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 2 ? Integer.class : String.class;
+    }
+
+    // EFFECTS: returns the value of the given column of the film in the given row
+    @Override
+    public Object getValueAt(int row, int column) {
+        Film f = films.getRoll(row);
+        switch (column) {
+            case 0:
+                return f.getName();
+            case 1:
+                return f.getBrand();
+            default:
+                return f.getIso();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reports the row of the given film as inserted
+    @Override
+    public void itemAdded(Film item, int index) {
+        fireTableRowsInserted(index, index);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reports the row of the given film as deleted
+    @Override
+    public void itemRemoved(Film item, int index) {
+        fireTableRowsDeleted(index, index);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reports the row of the given film as updated
+    @Override
+    public void itemChanged(Film item, String property) {
+        int index = films.indexOf(item);
+        if (index != -1) {
+            fireTableRowsUpdated(index, index);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ui.tables;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.TableModel;
+import javax.swing.table.TableRowSorter;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/*
+ * Represents a text field that filters the rows of a table as the user types. The search only starts once the user
+ * has stopped typing for DELAY milliseconds, so a burst of keystrokes searches once rather than once per key. The
+ * search runs on the event dispatch thread, as the collections it reads are only ever changed there; it is answered
+ * from the indexes of the collection, so it does not hold up typing. The rows are hidden by the row sorter of the
+ * table, so the rows of the table model are never copied.
+ *
+ * While the table is filtered, a row that is added or changed is checked against the text on its own, and the row
+ * sorter only places that row, so editing one item does not search the whole collection again. The field listens to
+ * the table model after the table does, so the model notifies it first and the row sorter sees the updated matches.
+ *
+ * DELAY: represents the number of milliseconds the user must stop typing for before searching
+ * search: represents the function returning the items matching a text
+ * matches: represents the function checking whether a single item matches a text
+ * itemAt: represents the function returning the item shown in a row of the table model
+ * sorter: represents the row sorter of the table, which hides the rows not matching the search
+ * timer: represents the timer that starts the search once the user stops typing
+ * text: represents the text the rows are filtered by, or null if the rows are not filtered
+ * matching: represents the items matching the text, or null if the rows are not filtered
+ */
+public class FilterField<T> extends JTextField {
+    public static final int DELAY = 200;
+
+    private final Function<String, List<T>> search;
+    private final BiPredicate<T, String> matches;
+    private final IntFunction<T> itemAt;
+    private final TableRowSorter<TableModel> sorter;
+    private final Timer timer;
+    private String text;
+    private Set<T> matching;
+
+    // EFFECTS: constructs a field filtering the rows of the given table to the items returned by search, using
+    //          matches to check a single added or changed item, and itemAt to find the item in each row of the
+    //          table model
+    public FilterField(JTable table, Function<String, List<T>> search, BiPredicate<T, String> matches,
+                       IntFunction<T> itemAt) {
+        this.search = search;
+        this.matches = matches;
+        this.itemAt = itemAt;
+        this.sorter = new TableRowSorter<>(table.getModel());
+        sorter.setSortsOnUpdates(true);
+        table.setRowSorter(sorter);
+
+        timer = new Timer(DELAY, e -> filter());
+        timer.setRepeats(false);
+
+        getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                timer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                timer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                timer.restart();
+            }
+        });
+        table.getModel().addTableModelListener(this::rowsChanged);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows only the rows of the items matching the text of the field, or every row if it is empty
+    private void filter() {
+        String newText = getText().trim();
+        if (newText.isEmpty()) {
+            text = null;
+            matching = null;
+            sorter.setRowFilter(null);
+            return;
+        }
+
+        text = newText;
+        matching = Collections.newSetFromMap(new IdentityHashMap<>());
+        matching.addAll(search.apply(text));
+        sorter.setRowFilter(new RowFilter<TableModel, Integer>() {
+            @Override
+            public boolean include(Entry<? extends TableModel, ? extends Integer> entry) {
+                return matching != null && matching.contains(itemAt.apply(entry.getIdentifier()));
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: while the rows are filtered, checks the rows added or changed in the table model against the text,
+    //          or searches again if every row of the table model changed; rows removed no longer need checking
+    private void rowsChanged(TableModelEvent e) {
+        if (matching == null || e.getType() == TableModelEvent.DELETE) {
+            return;
+        }
+        if (e.getFirstRow() == TableModelEvent.HEADER_ROW || e.getLastRow() == Integer.MAX_VALUE) {
+            timer.restart();
+            return;
+        }
+        for (int row = e.getFirstRow(); row <= e.getLastRow(); row++) {
+            T item = itemAt.apply(row);
+            if (matches.test(item, text)) {
+                matching.add(item);
+            } else {
+                matching.remove(item);
+            }
+        }
+    }
+}
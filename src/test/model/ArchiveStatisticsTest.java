@@ -0,0 +1,110 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArchiveStatisticsTest {
+
+    private Camera c;
+    private Camera m;
+    private FilmCollection fc;
+
+    @BeforeEach
+    public void runBefore() {
+        c = new Camera("Program Plus", "35mm", "Pentax");
+        m = new Camera("Mamiya 7", "120", "Mamiya");
+        fc = new FilmCollection();
+
+        Film gold = new Film("Gold", 200, "35mm", c, "Kodak");
+        gold.setExpiry(2020, 1, 1);
+        gold.setDevelopDate(2020, 1, 11);
+        gold.setDevelopLocation("Kerrisdale Camera");
+        fc.addFilm(gold);
+
+        Film superia = new Film("Superia", 400, "35mm", c, "Fujifilm");
+        superia.setExpiry(2022, 1, 1);
+        superia.setDevelopDate(2021, 12, 2);
+        superia.setDevelopLocation("Kerrisdale Camera");
+        fc.addFilm(superia);
+
+        Film portra = new Film("Portra", 400, "120", m, "Kodak");
+        portra.setDevelopLocation("Natural Color Lab");
+        fc.addFilm(portra);
+    }
+
+    @Test
+    public void testComputed() {
+        ArchiveStatistics stats = new ArchiveStatistics(fc);
+
+        assertEquals(3, stats.getRollCount());
+        assertEquals(2, stats.getRollsByBrand().get("Kodak"));
+        assertEquals(1, stats.getRollsByBrand().get("Fujifilm"));
+        assertEquals(1, stats.getRollsByIso().get(200));
+        assertEquals(2, stats.getRollsByIso().get(400));
+        assertEquals(200, stats.getRollsByIso().firstKey());
+        assertEquals(2, stats.getRollsByCamera().get("Program Plus"));
+        assertEquals(2, stats.getRollsByDevelopLocation().get("Kerrisdale Camera"));
+
+        assertEquals(2, stats.getDatedCount());
+        assertEquals(1, stats.getExpiredWhenDevelopedCount());
+        assertEquals(0.5, stats.getExpiredWhenDevelopedRatio());
+        assertEquals(-10.0, stats.getAverageDaysPastExpiryByLocation().get("Kerrisdale Camera"));
+        assertNull(stats.getAverageDaysPastExpiryByLocation().get("Natural Color Lab"));
+    }
+
+    @Test
+    public void testEmpty() {
+        ArchiveStatistics stats = new ArchiveStatistics(new FilmCollection());
+
+        assertEquals(0, stats.getRollCount());
+        assertTrue(stats.getRollsByBrand().isEmpty());
+        assertEquals(0, stats.getExpiredWhenDevelopedRatio());
+    }
+
+    @Test
+    public void testParallelPass() {
+        for (int x = 0; x < 5 * ArchiveStatistics.THRESHOLD; x++) {
+            fc.addFilm(new Film("Ultramax", 100 * (x % 4 + 1), "35mm", c, x % 2 == 0 ? "Kodak" : "Ilford"));
+        }
+        ArchiveStatistics stats = new ArchiveStatistics(fc);
+
+        assertEquals(5 * ArchiveStatistics.THRESHOLD + 3, stats.getRollCount());
+        assertEquals(5 * ArchiveStatistics.THRESHOLD / 2 + 2, stats.getRollsByBrand().get("Kodak"));
+        assertEquals(5 * ArchiveStatistics.THRESHOLD / 4 + 2, stats.getRollsByIso().get(400));
+        assertEquals(5 * ArchiveStatistics.THRESHOLD + 2, stats.getRollsByCamera().get("Program Plus"));
+    }
+
+    @Test
+    public void testKeptUpToDate() {
+        ArchiveStatistics stats = new ArchiveStatistics(fc);
+        Film portra = fc.getRoll(2);
+
+        portra.setBrand("Fujifilm");
+        portra.setExpiry(2021, 1, 1);
+        portra.setDevelopDate(2021, 1, 31);
+        assertEquals(1, stats.getRollsByBrand().get("Kodak"));
+        assertEquals(2, stats.getRollsByBrand().get("Fujifilm"));
+        assertEquals(3, stats.getDatedCount());
+        assertEquals(2, stats.getExpiredWhenDevelopedCount());
+        assertEquals(30.0, stats.getAverageDaysPastExpiryByLocation().get("Natural Color Lab"));
+
+        c.setName("MX");
+        assertNull(stats.getRollsByCamera().get("Program Plus"));
+        assertEquals(2, stats.getRollsByCamera().get("MX"));
+
+        fc.removeFilm(fc.getRoll(0));
+        assertEquals(2, stats.getRollCount());
+        assertNull(stats.getRollsByBrand().get("Kodak"));
+        assertEquals(1, stats.getRollsByIso().size());
+        assertEquals(-30.0, stats.getAverageDaysPastExpiryByLocation().get("Kerrisdale Camera"));
+
+        fc.addFilm(new Film("HP5", 400, "120", m, "Ilford"));
+        assertEquals(3, stats.getRollsByIso().get(400));
+
+        stats.detach();
+        fc.addFilm(new Film("Delta", 3200, "120", m, "Ilford"));
+        assertEquals(3, stats.getRollCount());
+    }
+}
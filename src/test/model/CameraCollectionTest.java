@@ -5,7 +5,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class CameraCollectionTest {
 
@@ -99,4 +99,80 @@ public class CameraCollectionTest {
         cameraCollection.addCamera(c);
         assertEquals(1, cameraCollection.getCollection().size());
     }
+
+    @Test
+    public void testContains() {
+        assertFalse(cameraCollection.contains(camera));
+        cameraCollection.addCamera(camera);
+        assertTrue(cameraCollection.contains(camera));
+        cameraCollection.removeCamera(camera);
+        assertFalse(cameraCollection.contains(camera));
+    }
+
+    @Test
+    public void testObserverNotified() {
+        ArrayList<String> events = new ArrayList<>();
+        cameraCollection.addObserver(new CollectionObserver<Camera>() {
+            @Override
+            public void itemAdded(Camera item, int index) {
+                events.add("added " + index);
+            }
+
+            @Override
+            public void itemRemoved(Camera item, int index) {
+                events.add("removed " + index);
+            }
+
+            @Override
+            public void itemChanged(Camera item, String property) {
+                events.add("changed " + property);
+            }
+        });
+        cameraCollection.addCamera(camera);
+        camera.setManufacturer("Asahi");
+        assertEquals(0, cameraCollection.indexOf(camera));
+        cameraCollection.removeCamera(camera);
+        assertEquals(-1, cameraCollection.indexOf(camera));
+
+        assertEquals(3, events.size());
+        assertEquals("added 0", events.get(0));
+        assertEquals("changed manufacturer", events.get(1));
+        assertEquals("removed 0", events.get(2));
+    }
+
+    @Test
+    public void testSearch() {
+        Camera nikon = new Camera("FM2", "35mm", "Nikon");
+        cameraCollection.addCamera(nikon);
+        cameraCollection.addCamera(new Camera("Mamiya 7", "120", "Mamiya"));
+
+        assertEquals(nikon, cameraCollection.search("nik").get(0));
+        assertEquals(1, cameraCollection.search("120").size());
+
+        nikon.setName("F3");
+        assertEquals(0, cameraCollection.search("fm2").size());
+        assertEquals(nikon, cameraCollection.search("f3").get(0));
+
+        cameraCollection.removeCamera(nikon);
+        assertEquals(0, cameraCollection.search("nikon").size());
+    }
+
+    @Test
+    public void testIndexOfAfterRemove() {
+        Camera nikon = new Camera("FM2", "35mm", "Nikon");
+        Camera mamiya = new Camera("Mamiya 7", "120", "Mamiya");
+        cameraCollection.addCamera(camera);
+        cameraCollection.addCamera(nikon);
+        cameraCollection.addCamera(mamiya);
+        assertEquals(2, cameraCollection.indexOf(mamiya));
+
+        cameraCollection.removeCamera(nikon);
+        assertEquals(-1, cameraCollection.indexOf(nikon));
+        assertEquals(0, cameraCollection.indexOf(camera));
+        assertEquals(1, cameraCollection.indexOf(mamiya));
+        assertFalse(cameraCollection.contains(nikon));
+
+        cameraCollection.addCamera(nikon);
+        assertEquals(2, cameraCollection.indexOf(nikon));
+    }
 }
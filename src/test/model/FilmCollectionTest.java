@@ -5,8 +5,9 @@ import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class FilmCollectionTest {
 
@@ -224,4 +225,269 @@ public class FilmCollectionTest {
         ArrayList<Film> filtered = fc.filterByPhotosPathExist();
         assertEquals(9, filtered.size());
     }
+
+    @Test
+    public void testFilterAfterEdit() {
+        for (int x = 0; x < 9; x++) {
+            f = new Film("Ultramax", x, "35mm", c, "Kodak");
+            fc.addFilm(f);
+        }
+        f.setBrand("Fujifilm");
+        f.setIso(400);
+
+        assertEquals(8, fc.filterByBrand("Kodak").size());
+        assertEquals(1, fc.filterByBrand("Fujifilm").size());
+        assertEquals(f, fc.filterByIso(400).get(0));
+        assertEquals(0, fc.filterByIso(8).size());
+    }
+
+    @Test
+    public void testFilterInCollectionOrderAfterEdit() {
+        for (int x = 0; x < 5; x++) {
+            f = new Film(Integer.toString(x), 400, "35mm", c, "Kodak");
+            f.setExpiry(2020, 5, 15);
+            fc.addFilm(f);
+        }
+        Film first = fc.getRoll(0);
+        first.setIso(200);
+        first.setIso(400);
+        first.setBrand("Fujifilm");
+        first.setBrand("Kodak");
+        first.setExpiry(2021, 1, 1);
+        first.setExpiry(2020, 5, 15);
+
+        for (ArrayList<Film> filtered : Arrays.asList(fc.filterByIso(400), fc.filterByBrand("Kodak"),
+                fc.filterByExpiry(LocalDate.of(2020, 5, 15)), fc.filterByExpiryBetween(null, null))) {
+            assertEquals(fc.getCollection(), filtered);
+        }
+    }
+
+    @Test
+    public void testFilterAfterRemove() {
+        fc.addFilm(f);
+        fc.removeFilm(f);
+        f.setName("Superia");
+
+        assertEquals(0, fc.filterByName("UltraMax").size());
+        assertEquals(0, fc.filterByName("Superia").size());
+    }
+
+    @Test
+    public void testFilterByCameraAfterRename() {
+        fc.addFilm(f);
+        c.setName("MX");
+
+        assertEquals(1, fc.filterByCamera(new Camera("MX", "35mm", "Pentax")).size());
+        assertEquals(0, fc.filterByCamera(new Camera("Program Plus", "35mm", "Pentax")).size());
+    }
+
+    @Test
+    public void testFilterByDateAfterEdit() {
+        fc.addFilm(f);
+        f.setExpiry(2020, 5, 15);
+        f.setDevelopDate(2021, 1, 3);
+        f.setDevelopLocation("Kerrisdale Camera");
+        f.setDirectory("C:\\");
+
+        assertEquals(1, fc.filterByExpiry(LocalDate.of(2020, 5, 15)).size());
+        assertEquals(1, fc.filterByDevelopDate(LocalDate.of(2021, 1, 3)).size());
+        assertEquals(1, fc.filterByDevelopLocation("Kerrisdale Camera").size());
+        assertEquals(1, fc.filterByPhotosPathExist().size());
+    }
+
+    @Test
+    public void testFilterByExpiryBetween() {
+        for (int x = 1; x <= 12; x++) {
+            f = new Film("Ultramax", x, "35mm", c, "Kodak");
+            f.setExpiry(2020, 13 - x, 1);
+            fc.addFilm(f);
+        }
+        fc.addFilm(new Film("Ultramax", 0, "35mm", c, "Kodak"));
+
+        ArrayList<Film> filtered = fc.filterByExpiryBetween(LocalDate.of(2020, 3, 1), LocalDate.of(2020, 6, 1));
+        assertEquals(4, filtered.size());
+        assertEquals(LocalDate.of(2020, 3, 1), filtered.get(0).getExpiry());
+        assertEquals(LocalDate.of(2020, 6, 1), filtered.get(3).getExpiry());
+
+        assertEquals(2, fc.filterByExpiryBetween(null, LocalDate.of(2020, 2, 15)).size());
+        assertEquals(3, fc.filterByExpiryBetween(LocalDate.of(2020, 10, 1), null).size());
+        assertEquals(12, fc.filterByExpiryBetween(null, null).size());
+        assertEquals(0, fc.filterByExpiryBetween(LocalDate.of(2020, 6, 1), LocalDate.of(2020, 3, 1)).size());
+    }
+
+    @Test
+    public void testFilterByDevelopDateBetween() {
+        for (int x = 1; x <= 12; x++) {
+            f = new Film("Ultramax", x, "35mm", c, "Kodak");
+            f.setDevelopDate(2020, x, 10);
+            fc.addFilm(f);
+        }
+        f.setDevelopDate(2019, 1, 1);
+
+        ArrayList<Film> filtered = fc.filterByDevelopDateBetween(LocalDate.of(2020, 3, 1), LocalDate.of(2020, 6, 30));
+        assertEquals(4, filtered.size());
+        assertEquals(3, filtered.get(0).getIso());
+        assertEquals(f, fc.filterByDevelopDateBetween(null, LocalDate.of(2019, 12, 31)).get(0));
+    }
+
+    @Test
+    public void testFilterByExpiredWhenDeveloped() {
+        for (int x = 1; x <= 6; x++) {
+            f = new Film("Ultramax", x, "35mm", c, "Kodak");
+            f.setExpiry(2020, 3, 15);
+            f.setDevelopDate(2020, x, 1);
+            fc.addFilm(f);
+        }
+        fc.addFilm(new Film("Ultramax", 0, "35mm", c, "Kodak"));
+
+        ArrayList<Film> filtered = fc.filterByExpiredWhenDeveloped();
+        assertEquals(3, filtered.size());
+        assertEquals(4, filtered.get(0).getIso());
+    }
+
+    @Test
+    public void testAddFilmSameProperties() {
+        fc.addFilm(f);
+        fc.addFilm(new Film("UltraMax", 400, "35mm", c, "Kodak"));
+        assertEquals(2, fc.getSize());
+    }
+
+    @Test
+    public void testContains() {
+        assertFalse(fc.contains(f));
+        fc.addFilm(f);
+        assertTrue(fc.contains(f));
+        fc.removeFilm(f);
+        assertFalse(fc.contains(f));
+    }
+
+    @Test
+    public void testLazySource() {
+        ArrayList<Integer> decoded = new ArrayList<>();
+        fc = new FilmCollection(new FilmSource() {
+            @Override
+            public int size() {
+                return 3;
+            }
+
+            @Override
+            public Film decode(int index) {
+                decoded.add(index);
+                return new Film(Integer.toString(index), 400, "35mm", c, "Kodak");
+            }
+        });
+        assertEquals(3, fc.getSize());
+        assertTrue(fc.isPartiallyDecoded());
+
+        assertEquals("1", fc.getRoll(1).getName());
+        assertEquals("1", fc.getRoll(1).getName());
+        assertEquals(1, decoded.size());
+
+        fc.addFilm(f);
+        assertEquals(4, fc.getSize());
+        assertEquals(f, fc.getRoll(3));
+        assertEquals(1, decoded.size());
+
+        int x = 0;
+        for (Film film : fc) {
+            assertEquals(x < 3 ? Integer.toString(x) : "UltraMax", film.getName());
+            x++;
+        }
+        assertEquals(3, decoded.size());
+        assertFalse(fc.isPartiallyDecoded());
+        assertEquals(4, fc.filterByIso(400).size());
+    }
+
+    @Test
+    public void testLazySourceRemove() {
+        fc = new FilmCollection(new FilmSource() {
+            @Override
+            public int size() {
+                return 3;
+            }
+
+            @Override
+            public Film decode(int index) {
+                return new Film(Integer.toString(index), 400, "35mm", c, "Kodak");
+            }
+        });
+        fc.removeFilm(fc.getRoll(0));
+        assertEquals(2, fc.getSize());
+        assertEquals("1", fc.getRoll(0).getName());
+        assertEquals(1, fc.indexOf(fc.getRoll(1)));
+        assertEquals(2, fc.filterByBrand("Kodak").size());
+    }
+
+    @Test
+    public void testIndexOfAfterRemove() {
+        Film a = new Film("Portra 400", 400, "120", c, "Kodak");
+        Film b = new Film("Superia", 200, "35mm", c, "Fujifilm");
+        fc.addFilm(f);
+        fc.addFilm(a);
+        fc.addFilm(b);
+        assertEquals(2, fc.indexOf(b));
+
+        fc.removeFilm(f);
+        assertEquals(-1, fc.indexOf(f));
+        assertEquals(0, fc.indexOf(a));
+        assertEquals(1, fc.indexOf(b));
+
+        fc.addFilm(f);
+        assertEquals(2, fc.indexOf(f));
+        assertEquals(f, fc.getRoll(fc.indexOf(f)));
+    }
+
+    @Test
+    public void testObserverNotified() {
+        ArrayList<String> events = new ArrayList<>();
+        fc.addObserver(new CollectionObserver<Film>() {
+            @Override
+            public void itemAdded(Film item, int index) {
+                events.add("added " + item.getName() + " " + index);
+            }
+
+            @Override
+            public void itemRemoved(Film item, int index) {
+                events.add("removed " + item.getName() + " " + index);
+            }
+
+            @Override
+            public void itemChanged(Film item, String property) {
+                events.add("changed " + item.getName() + " " + property);
+            }
+        });
+        fc.addFilm(f);
+        f.setIso(800);
+        c.setName("K1000");
+        fc.removeFilm(f);
+        f.setIso(200);
+
+        assertEquals(4, events.size());
+        assertEquals("added UltraMax 0", events.get(0));
+        assertEquals("changed UltraMax iso", events.get(1));
+        assertEquals("changed UltraMax camera name", events.get(2));
+        assertEquals("removed UltraMax 0", events.get(3));
+    }
+
+    @Test
+    public void testSearch() {
+        Film portra = new Film("Portra", 400, "120", new Camera("Mamiya 7", "120", "Mamiya"), "Kodak");
+        portra.setDevelopLocation("Kerrisdale Camera");
+        fc.addFilm(f);
+        fc.addFilm(portra);
+
+        assertEquals(2, fc.search("kodak").size());
+        assertEquals(portra, fc.search("kerr").get(0));
+        assertEquals(f, fc.search("pentax ultra").get(0));
+        assertEquals(0, fc.search("fujifilm").size());
+
+        c.setManufacturer("Asahi");
+        portra.setBrand("Fujifilm");
+        assertEquals(0, fc.search("pentax").size());
+        assertEquals(f, fc.search("asahi").get(0));
+        assertEquals(portra, fc.search("fuji").get(0));
+
+        fc.removeFilm(portra);
+        assertEquals(0, fc.search("fuji").size());
+    }
 }
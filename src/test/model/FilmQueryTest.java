@@ -0,0 +1,129 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import static model.FilmQuery.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FilmQueryTest {
+
+    private Camera c;
+    private Camera m;
+    private FilmCollection fc;
+
+    @BeforeEach
+    public void runBefore() {
+        c = new Camera("Program Plus", "35mm", "Pentax");
+        m = new Camera("Mamiya 7", "120", "Mamiya");
+        fc = new FilmCollection();
+
+        for (int x = 1; x <= 12; x++) {
+            Film f = new Film("Ultramax " + x, 100 * x, "35mm", c, x % 2 == 0 ? "Kodak" : "Fujifilm");
+            f.setExpiry(2020, x, 1);
+            fc.addFilm(f);
+        }
+        for (int x = 1; x <= 3; x++) {
+            Film f = new Film("Portra " + x, 400, "120", m, "Kodak");
+            f.setDevelopDate(2021, x, 10);
+            f.setDevelopLocation("Kerrisdale Camera");
+            fc.addFilm(f);
+        }
+    }
+
+    @Test
+    public void testEqualTo() {
+        assertEquals(9, fc.query(equalTo("brand", "Kodak")).size());
+        assertEquals(3, fc.query(equalTo("camera", "Mamiya 7")).size());
+        assertEquals(0, fc.query(equalTo("name", "Superia")).size());
+    }
+
+    @Test
+    public void testUnknownProperty() {
+        assertThrows(IllegalArgumentException.class, () -> equalTo("iso", "400"));
+        assertThrows(IllegalArgumentException.class, () -> contains("directory", "C:"));
+    }
+
+    @Test
+    public void testStartsWith() {
+        assertEquals(3, fc.query(startsWith("name", "Portra")).size());
+        assertEquals(4, fc.query(startsWith("name", "Ultramax 1")).size());
+        assertEquals(0, fc.query(startsWith("name", "Superia")).size());
+    }
+
+    @Test
+    public void testContains() {
+        assertEquals(3, fc.query(contains("develop location", "")).size());
+        assertEquals(3, fc.query(contains("develop location", "kerrisdale")).size());
+        assertEquals(12, fc.query(contains("name", "MAX")).size());
+    }
+
+    @Test
+    public void testRanges() {
+        assertEquals(1, fc.query(isoEqualTo(100)).size());
+        assertEquals(4, fc.query(isoEqualTo(400)).size());
+        assertEquals(7, fc.query(isoBetween(null, 400)).size());
+        assertEquals(3, fc.query(isoBetween(1000, null)).size());
+
+        ArrayList<Film> expired = fc.query(expiryBetween(LocalDate.of(2020, 3, 1), LocalDate.of(2020, 5, 1)));
+        assertEquals(3, expired.size());
+        assertEquals(2, fc.query(developDateBetween(LocalDate.of(2021, 2, 1), null)).size());
+    }
+
+    @Test
+    public void testAndOrNot() {
+        FilmQuery kodak35 = and(equalTo("brand", "Kodak"), equalTo("type", "35mm"));
+        assertEquals(6, fc.query(kodak35).size());
+
+        FilmQuery fastOrPortra = or(isoBetween(1000, null), startsWith("name", "Portra"));
+        assertEquals(6, fc.query(fastOrPortra).size());
+
+        assertEquals(6, fc.query(not(equalTo("brand", "Kodak"))).size());
+        assertEquals(3, fc.query(and(kodak35, not(isoBetween(null, 600)))).size());
+        assertEquals(12, fc.query(or(contains("name", "max"), not(contains("name", "portra")))).size());
+    }
+
+    @Test
+    public void testPlannerPicksMostSelectiveIndex() {
+        FilmQuery query = and(equalTo("type", "35mm"), equalTo("camera", "Program Plus"), isoEqualTo(300),
+                contains("name", "max"));
+        FilmQuery.Plan plan = query.plan(fc);
+        assertEquals(1, plan.getEstimate());
+        assertEquals(1, plan.getCandidates().size());
+        assertEquals(1, fc.query(query).size());
+
+        assertNull(contains("name", "max").plan(fc));
+        assertNull(not(isoEqualTo(100)).plan(fc));
+        assertNull(and(contains("name", "max"), not(isoEqualTo(100))).plan(fc));
+        assertNull(or(isoEqualTo(100), contains("name", "max")).plan(fc));
+        assertEquals(5, or(isoEqualTo(100), isoEqualTo(400)).plan(fc).getEstimate());
+        assertEquals(5, or(isoEqualTo(100), isoEqualTo(400)).plan(fc).getCandidates().size());
+    }
+
+    @Test
+    public void testWideRangeEstimateCapped() {
+        for (int x = 1; x <= FilmQuery.MAX_ESTIMATED_KEYS; x++) {
+            fc.addFilm(new Film("Ektar " + x, 2000 + x, "120", m, "Kodak"));
+        }
+        assertEquals(fc.getSize(), isoBetween(100, null).plan(fc).getEstimate());
+        assertEquals(fc.getSize(), startsWith("name", "").plan(fc).getEstimate());
+        assertEquals(3, and(isoBetween(100, null), startsWith("name", "Portra")).plan(fc).getEstimate());
+
+        assertEquals(fc.getSize(), fc.query(isoBetween(100, null)).size());
+        assertEquals(FilmQuery.MAX_ESTIMATED_KEYS, fc.query(startsWith("name", "Ektar")).size());
+    }
+
+    @Test
+    public void testQueryAfterEdit() {
+        Film f = fc.query(equalTo("name", "Portra 2")).get(0);
+        f.setName("Ektar 2");
+        f.setIso(100);
+
+        assertEquals(2, fc.query(startsWith("name", "Portra")).size());
+        assertEquals(f, fc.query(and(startsWith("name", "Ektar"), isoEqualTo(100))).get(0));
+        assertEquals(2, fc.query(isoEqualTo(100)).size());
+    }
+}
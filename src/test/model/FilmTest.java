@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -98,4 +99,21 @@ class FilmTest {
     public void testToString() {
         assertEquals("UltraMax, Kodak, 35mm", f.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testObserverNotified() {
+        ArrayList<String> changes = new ArrayList<>();
+        f.addObserver((film, property) -> changes.add(property));
+        f.setIso(200);
+        c.setName("MX");
+        Camera other = new Camera("Impulse AF", "35mm", "Polaroid");
+        f.setCamera(other);
+        c.setName("Program Plus");
+        other.setManufacturer("Polaroid Originals");
+
+        assertEquals(4, changes.size());
+        assertEquals("iso", changes.get(0));
+        assertEquals("camera name", changes.get(1));
+        assertEquals("camera manufacturer", changes.get(3));
+    }
+}
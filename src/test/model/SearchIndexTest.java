@@ -0,0 +1,101 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchIndexTest {
+
+    private Camera pentax;
+    private Camera nikon;
+    private Camera mamiya;
+    private SearchIndex<Camera> index;
+
+    @BeforeEach
+    public void runBefore() {
+        pentax = new Camera("Program Plus", "35mm", "Pentax");
+        nikon = new Camera("FM2", "35mm", "Nikon");
+        mamiya = new Camera("Mamiya 7", "120", "Mamiya");
+        index = new SearchIndex<>(c -> Arrays.asList(c.getName(), c.getManufacturer(), c.getFilmType()));
+        index.add(pentax);
+        index.add(nikon);
+        index.add(mamiya);
+    }
+
+    @Test
+    public void testTokenize() {
+        assertEquals(Arrays.asList("kodak", "portra", "400", "120"), SearchIndex.tokenize(" Kodak Portra-400 (120)"));
+        assertTrue(SearchIndex.tokenize(null).isEmpty());
+        assertTrue(SearchIndex.tokenize("  --  ").isEmpty());
+    }
+
+    @Test
+    public void testSearchIgnoresCase() {
+        assertEquals(Arrays.asList(pentax), index.search("PENTAX"));
+        assertEquals(Arrays.asList(pentax, nikon), index.search("35MM"));
+    }
+
+    @Test
+    public void testSearchPrefix() {
+        assertEquals(Arrays.asList(pentax), index.search("prog"));
+        assertEquals(Arrays.asList(nikon), index.search("f"));
+        assertTrue(index.search("canon").isEmpty());
+        assertTrue(index.search("").isEmpty());
+    }
+
+    @Test
+    public void testSearchEveryWord() {
+        assertEquals(Arrays.asList(nikon), index.search("35mm nik"));
+        assertTrue(index.search("35mm mamiya").isEmpty());
+    }
+
+    @Test
+    public void testSearchRanking() {
+        Camera plus = new Camera("Plus", "35mm", "Plustek");
+        index.add(plus);
+
+        assertEquals(Arrays.asList(plus, pentax), index.search("pl"));
+        assertEquals(Arrays.asList(plus, pentax), index.search("plus"));
+        assertEquals(Arrays.asList(pentax, nikon, plus), index.search("35mm"));
+        assertEquals(Arrays.asList(mamiya), index.search("mam"));
+    }
+
+    @Test
+    public void testUpdate() {
+        nikon.setName("F3");
+        index.update(nikon);
+
+        assertTrue(index.search("fm2").isEmpty());
+        assertEquals(Arrays.asList(nikon), index.search("f3"));
+        assertEquals(Arrays.asList("f3", "nikon", "35mm"), index.getWords(nikon));
+        assertEquals(Arrays.asList(pentax, nikon), index.search("35mm"));
+    }
+
+    @Test
+    public void testRemove() {
+        index.remove(mamiya);
+        index.update(mamiya);
+
+        assertTrue(index.search("mamiya").isEmpty());
+        assertTrue(index.getWords(mamiya).isEmpty());
+        assertEquals(6, index.getWordCount());
+    }
+
+    @Test
+    public void testMatchesAgreesWithSearch() {
+        for (String query : new String[]{"pent", "35mm nik", "mamiya 7", "canon", "", "Program Plus"}) {
+            for (Camera c : Arrays.asList(pentax, nikon, mamiya)) {
+                assertEquals(index.search(query).contains(c), index.matches(c, query), query);
+            }
+        }
+        nikon.setName("F3");
+        index.update(nikon);
+        assertFalse(index.matches(nikon, "fm2"));
+        assertTrue(index.matches(nikon, "f3"));
+        index.remove(nikon);
+        assertFalse(index.matches(nikon, "f3"));
+    }
+}
@@ -0,0 +1,50 @@
+package persistence;
+
+import model.Archive;
+import model.Film;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArchiveConverterTest {
+
+    @Test
+    public void testForPath() {
+        assertEquals(ArchiveFormat.JSON, ArchiveFormat.forPath("./data/saveFile.json"));
+        assertEquals(ArchiveFormat.BINARY, ArchiveFormat.forPath("./data/saveFile.aarc"));
+        assertEquals(ArchiveFormat.JSON, ArchiveFormat.forPath("./data/saveFile"));
+    }
+
+    @Test
+    public void testConvertRoundTrip() {
+        try {
+            ArchiveConverter.convert("./data/testFullArchive.json", "./data/testConverterFullArchive.aarc");
+            ArchiveConverter.convert("./data/testConverterFullArchive.aarc", "./data/testConverterFullArchive.json");
+
+            Archive a = new JsonReader("./data/testConverterFullArchive.json").read();
+            Film f = a.filmCollection.getRoll(0);
+            assertEquals(2, a.filmCollection.getCollection().size());
+            assertEquals(2, a.cameraCollection.getCollection().size());
+            assertEquals("Pentax", a.cameraCollection.getCamera(0).getManufacturer());
+            assertEquals("Kodak Ultramax", f.getBrand());
+            assertEquals(LocalDate.of(2020, 12, 30), f.getExpiry());
+            assertEquals(LocalDate.of(2020, 7, 12), f.getDevelopDate());
+            assertEquals("Natural Color Lab", f.getDevelopLocation());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    public void testConvertNonExistentFile() {
+        try {
+            ArchiveConverter.convert("./data/fileDoesNotExist.json", "./data/fileDoesNotExist.aarc");
+            fail("IOException not thrown");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package persistence;
+
+import model.Archive;
+import model.Camera;
+import model.CameraCollection;
+import model.Film;
+import model.FilmCollection;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArchiveJournalTest {
+    private String snapshotPath;
+    private Path journalPath;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        Path dir = Files.createTempDirectory("journal");
+        Files.copy(Paths.get("./data/testGeneralArchive.json"), dir.resolve("archive.json"));
+        snapshotPath = dir.resolve("archive.json").toString();
+        journalPath = Paths.get(snapshotPath + ArchiveJournal.JOURNAL_EXTENSION);
+    }
+
+    @Test
+    public void testSaveAppendsChanges() {
+        try {
+            ArchiveJournal journal = new ArchiveJournal(snapshotPath);
+            Archive a = journal.load(false);
+            byte[] snapshot = Files.readAllBytes(Paths.get(snapshotPath));
+
+            Camera camera = new Camera("Olympus XA", "35mm", "Olympus");
+            a.cameraCollection.addCamera(camera);
+            Film film = new Film("Portra 400", 400, "35mm", camera, "Kodak");
+            film.setExpiry(2023, 4, 5);
+            a.filmCollection.addFilm(film);
+            a.filmCollection.getRoll(0).setName("Renamed");
+            camera.setManufacturer("OM System");
+            assertEquals(4, journal.getPendingChanges());
+
+            journal.save().join();
+            assertEquals(0, journal.getPendingChanges());
+            assertArrayEquals(snapshot, Files.readAllBytes(Paths.get(snapshotPath)));
+            assertEquals(5, Files.readAllLines(journalPath).size());
+
+            Archive b = new ArchiveJournal(snapshotPath).load(false);
+            assertEquals(a.filmCollection.getSize(), b.filmCollection.getSize());
+            assertEquals(a.cameraCollection.getSize(), b.cameraCollection.getSize());
+            assertEquals("Renamed", b.filmCollection.getRoll(0).getName());
+            Film loaded = b.filmCollection.getRoll(b.filmCollection.getSize() - 1);
+            assertEquals("Portra 400", loaded.getName());
+            assertEquals(LocalDate.of(2023, 4, 5), loaded.getExpiry());
+            assertEquals("OM System", loaded.getCamera().getManufacturer());
+            assertSame(b.cameraCollection.getCamera(b.cameraCollection.getSize() - 1), loaded.getCamera());
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+
+    @Test
+    public void testSaveRemovals() {
+        try {
+            ArchiveJournal journal = new ArchiveJournal(snapshotPath);
+            Archive a = journal.load(false);
+            Film second = a.filmCollection.getRoll(1);
+            a.filmCollection.removeFilm(a.filmCollection.getRoll(0));
+            a.cameraCollection.removeCamera(a.cameraCollection.getCamera(0));
+            journal.save().join();
+
+            Archive b = new ArchiveJournal(snapshotPath).load(false);
+            assertEquals(a.filmCollection.getSize(), b.filmCollection.getSize());
+            assertEquals(a.cameraCollection.getSize(), b.cameraCollection.getSize());
+            assertEquals(second.getName(), b.filmCollection.getRoll(0).getName());
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+
+    @Test
+    public void testCameraOutsideCollection() {
+        try {
+            ArchiveJournal journal = new ArchiveJournal(snapshotPath);
+            Archive a = journal.load(false);
+            Camera camera = new Camera("Holga", "35mm", "Holga");
+            a.filmCollection.getRoll(0).setCamera(camera);
+            camera.setName("Holga 120N");
+            journal.save().join();
+
+            Archive b = new ArchiveJournal(snapshotPath).load(false);
+            Camera loaded = b.filmCollection.getRoll(0).getCamera();
+            assertEquals("Holga 120N", loaded.getName());
+            assertFalse(b.cameraCollection.contains(loaded));
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+
+    @Test
+    public void testTruncatedEntryIgnored() {
+        try {
+            ArchiveJournal journal = new ArchiveJournal(snapshotPath);
+            Archive a = journal.load(false);
+            a.filmCollection.getRoll(0).setName("Renamed");
+            journal.save().join();
+            Files.write(journalPath, "{\"op\":\"remove fi".getBytes(), StandardOpenOption.APPEND);
+
+            ArchiveJournal reloaded = new ArchiveJournal(snapshotPath);
+            Archive b = reloaded.load(false);
+            assertEquals("Renamed", b.filmCollection.getRoll(0).getName());
+            assertEquals(a.filmCollection.getSize(), b.filmCollection.getSize());
+
+            reloaded.save().join();
+            assertEquals(1, Files.readAllLines(journalPath).size());
+            Archive c = new JsonReader(snapshotPath).read();
+            assertEquals("Renamed", c.filmCollection.getRoll(0).getName());
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+
+    @Test
+    public void testStaleJournalIgnored() {
+        try {
+            ArchiveJournal journal = new ArchiveJournal(snapshotPath);
+            Archive a = journal.load(false);
+            a.filmCollection.getRoll(0).setName("Renamed");
+            journal.save().join();
+
+            Archive original = new JsonReader("./data/testGeneralArchive.json").read();
+            original.filmCollection.getRoll(0).setIso(1600);
+            JsonWriter writer = new JsonWriter(snapshotPath);
+            writer.open();
+            writer.write(original);
+            writer.close();
+
+            Archive b = new ArchiveJournal(snapshotPath).load(false);
+            assertEquals(original.filmCollection.getRoll(0).getName(), b.filmCollection.getRoll(0).getName());
+            assertEquals(1600, b.filmCollection.getRoll(0).getIso());
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+
+    @Test
+    public void testStaleJournalWithSameSnapshotSizeAndTimeIgnored() {
+        try {
+            ArchiveJournal journal = new ArchiveJournal(snapshotPath);
+            Archive a = journal.load(false);
+            a.filmCollection.getRoll(0).setName("Renamed");
+            journal.save().join();
+
+            // a newer snapshot of the same size, written within the same modification time
+            Path snapshot = Paths.get(snapshotPath);
+            FileTime modified = Files.getLastModifiedTime(snapshot);
+            String json = new String(Files.readAllBytes(snapshot), StandardCharsets.UTF_8);
+            Files.write(snapshot, json.replaceFirst("\"iso\": 400", "\"iso\": 800").getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(snapshot, modified);
+
+            Archive b = new ArchiveJournal(snapshotPath).load(false);
+            assertEquals("test", b.filmCollection.getRoll(0).getName());
+            assertEquals(800, b.filmCollection.getRoll(0).getIso());
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+
+    @Test
+    public void testCompactWhenJournalGrows() {
+        try {
+            ArchiveJournal journal = new ArchiveJournal(snapshotPath);
+            Archive a = journal.load(false);
+            Film f = a.filmCollection.getRoll(0);
+            for (int i = 0; i < 200; i++) {
+                f.setIso(i);
+            }
+            journal.save().join();
+            assertEquals(1, Files.readAllLines(journalPath).size());
+            assertEquals(199, new JsonReader(snapshotPath).read().filmCollection.getRoll(0).getIso());
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+
+    @Test
+    public void testAttachWritesSnapshot() {
+        try {
+            ArchiveJournal journal = new ArchiveJournal(snapshotPath);
+            journal.attach(new Archive(new CameraCollection(), new FilmCollection()));
+            journal.save().join();
+            Archive a = new JsonReader(snapshotPath).read();
+            assertEquals(0, a.filmCollection.getSize());
+            assertEquals(0, a.cameraCollection.getSize());
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+
+    @Test
+    public void testLoadNonExistentFileKeepsArchive() {
+        ArchiveJournal journal = new ArchiveJournal(snapshotPath + ".missing");
+        FilmCollection fc = new FilmCollection();
+        journal.attach(new Archive(new CameraCollection(), fc));
+        try {
+            journal.load(false);
+            fail("IOException not thrown");
+        } catch (IOException e) {
+            //pass
+        }
+        fc.addFilm(new Film("Portra 400", 400, "35mm", new Camera("XA", "35mm", "Olympus"), "Kodak"));
+        assertEquals(1, journal.getPendingChanges());
+    }
+
+    @Test
+    public void testSaveWritesCopyTakenWhenStarted() {
+        try {
+            ArchiveJournal journal = new ArchiveJournal(snapshotPath);
+            Archive a = new JsonReader(snapshotPath).read();
+            journal.attach(a);
+            String name = a.filmCollection.getRoll(0).getName();
+            CompletableFuture<Void> saved = journal.save();
+            a.filmCollection.getRoll(0).setName("Renamed");
+            a.cameraCollection.getCamera(0).setName("Renamed");
+            saved.join();
+
+            Archive b = new JsonReader(snapshotPath).read();
+            assertEquals(name, b.filmCollection.getRoll(0).getName());
+            assertSame(b.cameraCollection.getCamera(0), b.filmCollection.getRoll(0).getCamera());
+            assertFalse(Files.exists(Paths.get(snapshotPath + ArchiveJournal.TEMP_EXTENSION)));
+            assertFalse(Files.exists(Paths.get(journalPath + ArchiveJournal.TEMP_EXTENSION)));
+            assertEquals(2, journal.getPendingChanges());
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+
+    @Test
+    public void testSaveFailureReported() {
+        ArchiveJournal journal = new ArchiveJournal(snapshotPath + "/missing/archive.json");
+        journal.attach(new Archive(new CameraCollection(), new FilmCollection()));
+        try {
+            journal.save().join();
+            fail("CompletionException not thrown");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testFailedSnapshotKeepsOldSnapshot() {
+        Path full = Paths.get("/dev/full");
+        Assumptions.assumeTrue(Files.exists(full));
+        try {
+            ArchiveJournal journal = new ArchiveJournal(snapshotPath);
+            Archive a = journal.load(false);
+            byte[] snapshot = Files.readAllBytes(Paths.get(snapshotPath));
+            Path temp = Paths.get(snapshotPath + ArchiveJournal.TEMP_EXTENSION);
+            Files.createSymbolicLink(temp, full);
+
+            journal.attach(a);
+            a.filmCollection.getRoll(0).setName("Renamed");
+            try {
+                journal.save().join();
+                fail("CompletionException not thrown");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof IOException);
+            }
+            assertArrayEquals(snapshot, Files.readAllBytes(Paths.get(snapshotPath)));
+            assertFalse(Files.exists(temp, LinkOption.NOFOLLOW_LINKS));
+
+            journal.save().join();
+            assertEquals("Renamed", new JsonReader(snapshotPath).read().filmCollection.getRoll(0).getName());
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+
+    @Test
+    public void testChangesSavedDuringFailedSnapshotNotAppended() throws InterruptedException {
+        Path temp = Paths.get(snapshotPath + ArchiveJournal.TEMP_EXTENSION);
+        try {
+            Process mkfifo = new ProcessBuilder("mkfifo", temp.toString()).start();
+            Assumptions.assumeTrue(mkfifo.waitFor() == 0);
+        } catch (IOException e) {
+            Assumptions.assumeTrue(false, "mkfifo not available");
+        }
+
+        try {
+            ArchiveJournal journal = new ArchiveJournal(snapshotPath);
+            Archive a = journal.load(false);
+            journal.attach(a);
+            Camera camera = a.cameraCollection.getCamera(0);
+            for (int i = 0; i < 1000; i++) {
+                a.filmCollection.addFilm(new Film("Roll " + i, 400, "35mm", camera, "Kodak"));
+            }
+            CompletableFuture<Void> snapshot = journal.save();
+
+            // the snapshot is being written once its first byte can be read from the pipe, and fills the pipe
+            // until it is closed
+            CompletableFuture<Void> changes;
+            try (InputStream pipe = Files.newInputStream(temp)) {
+                assertNotEquals(-1, pipe.read());
+                a.filmCollection.getRoll(a.filmCollection.getSize() - 1).setName("Renamed");
+                changes = journal.save();
+            }
+            assertThrows(CompletionException.class, snapshot::join);
+            assertThrows(CompletionException.class, changes::join);
+            assertFalse(Files.exists(journalPath));
+
+            journal.save().join();
+            Archive b = new ArchiveJournal(snapshotPath).load(false);
+            assertEquals(a.filmCollection.getSize(), b.filmCollection.getSize());
+            assertEquals("Renamed", b.filmCollection.getRoll(b.filmCollection.getSize() - 1).getName());
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+}
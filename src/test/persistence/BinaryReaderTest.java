@@ -0,0 +1,51 @@
+package persistence;
+
+import model.Archive;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryReaderTest {
+
+    @Test
+    public void testReaderNonExistentFile() {
+        BinaryReader reader = new BinaryReader("./data/fileDoesNotExist.aarc");
+        try {
+            Archive a = reader.read();
+            fail("IOException not thrown");
+        } catch (IOException e) {
+            //pass
+        }
+    }
+
+    @Test
+    public void testReaderNotBinaryArchive() {
+        BinaryReader reader = new BinaryReader("./data/testGeneralArchive.json");
+        try {
+            Archive a = reader.read();
+            fail("IOException not thrown");
+        } catch (IOException e) {
+            //pass
+        }
+    }
+
+    @Test
+    public void testReaderGeneralArchive() {
+        try {
+            ArchiveConverter.convert("./data/testGeneralArchive.json", "./data/testGeneralArchive.aarc");
+            BinaryReader reader = new BinaryReader("./data/testGeneralArchive.aarc");
+            Archive a = reader.read();
+            assertEquals(3, a.filmCollection.getCollection().size());
+            assertEquals(2, a.cameraCollection.getCollection().size());
+            assertEquals(1, a.filmCollection.filterByType("Instant Film").size());
+            assertEquals(2, a.filmCollection.filterByType("35mm").size());
+            assertEquals(1, a.cameraCollection.filterByManufacturer("Polaroid").size());
+            assertEquals(1, a.cameraCollection.filterByManufacturer("Pentax").size());
+            assertSame(a.cameraCollection.getCamera(0), a.filmCollection.getRoll(0).getCamera());
+        } catch (IOException e) {
+            fail("Could not read from file");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package persistence;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryWriterTest {
+
+    @Test
+    public void testWriterInvalidFile() {
+        try {
+            BinaryWriter writer = new BinaryWriter("./data/my\0illegal:fileName.aarc");
+            writer.open();
+            fail("IOException was expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testWriterEmptyArchive() {
+        try {
+            Archive a = new Archive(new CameraCollection(), new FilmCollection());
+            BinaryWriter writer = new BinaryWriter("./data/testWriterEmptyArchive.aarc");
+            writer.open();
+            writer.write(a);
+            writer.close();
+
+            BinaryReader reader = new BinaryReader("./data/testWriterEmptyArchive.aarc");
+            a = reader.read();
+            assertTrue(a.cameraCollection.getCollection().isEmpty());
+            assertTrue(a.filmCollection.getCollection().isEmpty());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    public void testWriterGeneralArchive() {
+        try {
+            Archive a = new Archive(new CameraCollection(), new FilmCollection());
+            Camera c1 = new Camera("Program Plus", "35mm", "Pentax");
+            Camera c2 = new Camera("Impulse AF", "Instant Film", "Polaroid");
+            Film f1 = new Film("test", 400, "35mm", c1, "Kodak Ultramax");
+            Film f2 = new Film("test2", 600, "Instant Film", c2, "Polaroid Originals 600");
+            f1.setExpiry(2020, 12, 30);
+            f1.setDevelopDate(2020, 7, 12);
+            f1.setDevelopLocation("Natural Color Lab");
+            f1.setDirectory("C:\\users\\nandp\\google drive\\photography");
+
+            a.cameraCollection.addCamera(c1);
+            a.filmCollection.addFilm(f1);
+            a.filmCollection.addFilm(f2);
+
+            BinaryWriter writer = new BinaryWriter("./data/testWriterGeneralArchive.aarc");
+            writer.open();
+            writer.write(a);
+            writer.close();
+
+            BinaryReader reader = new BinaryReader("./data/testWriterGeneralArchive.aarc");
+            a = reader.read();
+            Film f = a.filmCollection.getRoll(0);
+            assertEquals(2, a.filmCollection.getCollection().size());
+            assertEquals(1, a.cameraCollection.getCollection().size());
+            assertSame(a.cameraCollection.getCamera(0), f.getCamera());
+            assertEquals("Polaroid", a.filmCollection.getRoll(1).getCamera().getManufacturer());
+
+            assertEquals("test", f.getName());
+            assertEquals(400, f.getIso());
+            assertEquals("35mm", f.getType());
+            assertEquals("Kodak Ultramax", f.getBrand());
+            assertEquals(LocalDate.of(2020, 12, 30), f.getExpiry());
+            assertEquals(LocalDate.of(2020, 7, 12), f.getDevelopDate());
+            assertEquals("Natural Color Lab", f.getDevelopLocation());
+            assertEquals("C:\\users\\nandp\\google drive\\photography", f.getDirectory());
+            assertNull(a.filmCollection.getRoll(1).getExpiry());
+            assertNull(a.filmCollection.getRoll(1).getDevelopLocation());
+            assertNull(a.filmCollection.getRoll(1).getDirectory());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package persistence;
 
 import model.Archive;
+import model.Camera;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -65,4 +69,111 @@ public class JsonReaderTest {
             fail("Could not read from file");
         }
     }
+
+    @Test
+    public void testReadStreamNonExistentFile() {
+        JsonReader reader = new JsonReader("./data/fileDoesNotExist.json");
+        try {
+            Archive a = reader.readStream();
+            fail("IOException not thrown");
+        } catch (IOException e) {
+            //pass
+        }
+    }
+
+    @Test
+    public void testReadStreamEmptyArchive() {
+        JsonReader reader = new JsonReader("./data/testEmptyArchive.json");
+        try {
+            Archive a = reader.readStream();
+            assertTrue(a.filmCollection.getCollection().isEmpty());
+            assertTrue(a.cameraCollection.getCollection().isEmpty());
+        } catch (IOException e) {
+            fail("Could not read from file");
+        }
+    }
+
+    @Test
+    public void testReadStreamGeneralArchive() {
+        JsonReader reader = new JsonReader("./data/testGeneralArchive.json");
+        Archive a;
+        try {
+            a = reader.readStream();
+            assertEquals(3, a.filmCollection.getCollection().size());
+            assertEquals(2, a.cameraCollection.getCollection().size());
+            assertEquals(1, a.filmCollection.filterByType("Instant Film").size());
+            assertEquals(2, a.filmCollection.filterByType("35mm").size());
+            assertEquals("test2", a.filmCollection.getRoll(1).getName());
+            assertEquals("Kodak Ultramax", a.filmCollection.getRoll(1).getDirectory());
+            assertEquals(1, a.cameraCollection.filterByManufacturer("Polaroid").size());
+        } catch (IOException e) {
+            fail("Could not read from file");
+        }
+    }
+
+    @Test
+    public void testReadStreamFullArchive() {
+        JsonReader reader = new JsonReader("./data/testFullArchive.json");
+        Archive a;
+        try {
+            a = reader.readStream();
+            assertEquals(2, a.filmCollection.getCollection().size());
+            assertEquals(2, a.cameraCollection.getCollection().size());
+            assertEquals(1, a.filmCollection.filterByType("Instant Film").size());
+            assertEquals(1, a.cameraCollection.filterByManufacturer("Pentax").size());
+        } catch (IOException e) {
+            fail("Could not read from file");
+        }
+    }
+
+    @Test
+    public void testOldFormatSharesCameras() {
+        JsonReader reader = new JsonReader("./data/testGeneralArchive.json");
+        try {
+            Archive a = reader.read();
+            Camera pentax = a.cameraCollection.filterByManufacturer("Pentax").get(0);
+            assertSame(pentax, a.filmCollection.getRoll(0).getCamera());
+            assertSame(pentax, a.filmCollection.getRoll(1).getCamera());
+
+            a = reader.readStream();
+            pentax = a.cameraCollection.filterByManufacturer("Pentax").get(0);
+            assertSame(pentax, a.filmCollection.getRoll(0).getCamera());
+            assertSame(pentax, a.filmCollection.getRoll(1).getCamera());
+        } catch (IOException e) {
+            fail("Could not read from file");
+        }
+    }
+
+    @Test
+    public void testReadStreamFilmBeforeCameras() {
+        String film = "{\"iso\": 400, \"name\": \"%s\", \"expiry\": {}, \"type\": \"35mm\", "
+                + "\"camera\": %s, \"brand\": \"Kodak\", \"develop date\": {}}";
+        String embedded = "{\"name\": \"XA\", \"film type\": \"35mm\", \"manufacturer\": \"Olympus\"}";
+        String camera = "{\"name\": \"XA\", \"film type\": \"35mm\", \"manufacturer\": \"Olympus\", "
+                + "\"id\": %d}";
+        try {
+            Path oldFormat = Files.createTempFile("old", ".json");
+            Files.write(oldFormat, ("{\"Film\": [" + String.format(film, "a", embedded) + ", "
+                    + String.format(film, "b", embedded) + "], \"Cameras\": [" + embedded + ", " + embedded
+                    + "]}").getBytes(StandardCharsets.UTF_8));
+            Archive a = new JsonReader(oldFormat.toString()).readStream();
+            assertEquals(2, a.filmCollection.getSize());
+            assertEquals(2, a.cameraCollection.getSize());
+            assertSame(a.cameraCollection.getCamera(0), a.filmCollection.getRoll(0).getCamera());
+            assertSame(a.cameraCollection.getCamera(0), a.filmCollection.getRoll(1).getCamera());
+            assertNotSame(a.cameraCollection.getCamera(0), a.cameraCollection.getCamera(1));
+
+            Path ids = Files.createTempFile("ids", ".json");
+            Files.write(ids, ("{\"version\": 2, \"Film\": [" + String.format(film, "a", "1") + ", "
+                    + String.format(film, "b", embedded) + "], \"Cameras\": [" + String.format(camera, 0) + ", "
+                    + String.format(camera, 1) + "]}").getBytes(StandardCharsets.UTF_8));
+            a = new JsonReader(ids.toString()).readStream();
+            assertEquals("a", a.filmCollection.getRoll(0).getName());
+            assertEquals("b", a.filmCollection.getRoll(1).getName());
+            assertSame(a.cameraCollection.getCamera(1), a.filmCollection.getRoll(0).getCamera());
+            assertSame(a.cameraCollection.getCamera(0), a.filmCollection.getRoll(1).getCamera());
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
 }
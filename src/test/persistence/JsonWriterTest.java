@@ -2,9 +2,12 @@ package persistence;
 
 
 import model.*;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -110,4 +113,126 @@ public class JsonWriterTest {
             fail("Exception should not have been thrown");
         }
     }
+
+    @Test
+    public void testWriteStreamEmptyArchive() {
+        try {
+            Archive a = new Archive(new CameraCollection(), new FilmCollection());
+            JsonWriter writer = new JsonWriter("./data/testWriterStreamEmptyArchive.json");
+            writer.open();
+            writer.writeStream(a);
+            writer.close();
+
+            JsonReader reader = new JsonReader("./data/testWriterStreamEmptyArchive.json");
+            a = reader.read();
+            assertTrue(a.cameraCollection.getCollection().isEmpty());
+            assertTrue(a.filmCollection.getCollection().isEmpty());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    public void testWriteStreamFullArchive() {
+        try {
+            JsonReader reader = new JsonReader("./data/testFullArchive.json");
+            Archive a = reader.read();
+
+            JsonWriter writer = new JsonWriter("./data/testWriterStreamFullArchive.json");
+            writer.open();
+            writer.writeStream(a);
+            writer.close();
+
+            reader = new JsonReader("./data/testWriterStreamFullArchive.json");
+            a = reader.read();
+            Film f = a.filmCollection.getRoll(0);
+            assertEquals(2, a.filmCollection.getCollection().size());
+            assertEquals(2, a.cameraCollection.getCollection().size());
+            assertEquals("Pentax", a.cameraCollection.getCamera(0).getManufacturer());
+            assertEquals("Kodak Ultramax", f.getBrand());
+            assertEquals(LocalDate.of(2020, 12, 30), f.getExpiry());
+            assertEquals(LocalDate.of(2020, 7, 12), f.getDevelopDate());
+            assertEquals("Natural Color Lab", f.getDevelopLocation());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    public void testWriteStreamCompactArchive() {
+        try {
+            JsonReader reader = new JsonReader("./data/testFullArchive.json");
+            Archive a = reader.read();
+
+            JsonWriter writer = new JsonWriter("./data/testWriterCompactArchive.json", true);
+            writer.open();
+            writer.writeStream(a);
+            writer.close();
+
+            String json = new String(Files.readAllBytes(Paths.get("./data/testWriterCompactArchive.json")));
+            assertFalse(json.contains("\n"));
+
+            reader = new JsonReader("./data/testWriterCompactArchive.json");
+            a = reader.readStream();
+            assertEquals(2, a.filmCollection.getCollection().size());
+            assertEquals(2, a.cameraCollection.getCollection().size());
+            assertEquals(1, a.filmCollection.filterByType("Instant Film").size());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    public void testWriterCameraIds() {
+        try {
+            CameraCollection cc = new CameraCollection();
+            FilmCollection fc = new FilmCollection();
+            Archive a = new Archive(cc, fc);
+            Camera c1 = new Camera("Program Plus", "35mm", "Pentax");
+            Camera c2 = new Camera("Impulse AF", "Instant Film", "Polaroid");
+            a.cameraCollection.addCamera(c1);
+            a.filmCollection.addFilm(new Film("test", 400, "35mm", c1, "Kodak Ultramax"));
+            a.filmCollection.addFilm(new Film("test2", 400, "35mm", c1, "Kodak Portra"));
+            a.filmCollection.addFilm(new Film("test3", 600, "Instant Film", c2, "Polaroid Originals 600"));
+
+            JsonWriter writer = new JsonWriter("./data/testWriterCameraIds.json");
+            writer.open();
+            writer.write(a);
+            writer.close();
+            assertSharedCameras(new JsonReader("./data/testWriterCameraIds.json").read());
+            assertSharedCameras(new JsonReader("./data/testWriterCameraIds.json").readStream());
+
+            writer.open();
+            writer.writeStream(a);
+            writer.close();
+            assertSharedCameras(new JsonReader("./data/testWriterCameraIds.json").read());
+            assertSharedCameras(new JsonReader("./data/testWriterCameraIds.json").readStream());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    // EFFECTS: checks that the film in the given archive share the one camera in the camera collection,
+    //          except for the last film, whose camera is not in the collection
+    private void assertSharedCameras(Archive a) {
+        assertEquals(1, a.cameraCollection.getSize());
+        assertEquals(3, a.filmCollection.getSize());
+        Camera c = a.cameraCollection.getCamera(0);
+        assertSame(c, a.filmCollection.getRoll(0).getCamera());
+        assertSame(c, a.filmCollection.getRoll(1).getCamera());
+        assertEquals("Polaroid", a.filmCollection.getRoll(2).getCamera().getManufacturer());
+    }
+
+    @Test
+    public void testWriterFailedWriteReportedOnClose() {
+        Assumptions.assumeTrue(Files.exists(Paths.get("/dev/full")));
+        JsonWriter writer = new JsonWriter("/dev/full");
+        try {
+            writer.open();
+            writer.write(new Archive(new CameraCollection(), new FilmCollection()));
+        } catch (IOException e) {
+            fail("Could not open file");
+        }
+        assertThrows(IOException.class, writer::close);
+    }
 }
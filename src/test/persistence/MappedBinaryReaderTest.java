@@ -0,0 +1,82 @@
+package persistence;
+
+import model.Archive;
+import model.Film;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedBinaryReaderTest {
+
+    @Test
+    public void testReaderNonExistentFile() {
+        MappedBinaryReader reader = new MappedBinaryReader("./data/fileDoesNotExist.aarc");
+        try {
+            Archive a = reader.read();
+            fail("IOException not thrown");
+        } catch (IOException e) {
+            //pass
+        }
+    }
+
+    @Test
+    public void testReaderNotBinaryArchive() {
+        MappedBinaryReader reader = new MappedBinaryReader("./data/testFullArchive.json");
+        try {
+            Archive a = reader.read();
+            fail("IOException not thrown");
+        } catch (IOException e) {
+            //pass
+        }
+    }
+
+    @Test
+    public void testReaderDecodesOnAccess() {
+        try {
+            ArchiveConverter.convert("./data/testFullArchive.json", "./data/testMappedFullArchive.aarc");
+            MappedBinaryReader reader = new MappedBinaryReader("./data/testMappedFullArchive.aarc");
+            Archive a = reader.read();
+            assertEquals(2, a.filmCollection.getSize());
+            assertEquals(2, a.cameraCollection.getSize());
+            assertTrue(a.filmCollection.isPartiallyDecoded());
+
+            Film f = a.filmCollection.getRoll(0);
+            assertTrue(a.filmCollection.isPartiallyDecoded());
+            assertSame(f, a.filmCollection.getRoll(0));
+            assertEquals("Kodak Ultramax", f.getBrand());
+            assertEquals(LocalDate.of(2020, 12, 30), f.getExpiry());
+            assertSame(a.cameraCollection.getCamera(0), f.getCamera());
+
+            assertEquals(1, a.filmCollection.filterByType("Instant Film").size());
+            assertFalse(a.filmCollection.isPartiallyDecoded());
+        } catch (IOException e) {
+            fail("Could not read from file");
+        }
+    }
+
+    @Test
+    public void testCopiedReaderKeepsNoHoldOnFile() {
+        try {
+            ArchiveConverter.convert("./data/testFullArchive.json", "./data/testCopiedFullArchive.aarc");
+            MappedBinaryReader reader = new MappedBinaryReader("./data/testCopiedFullArchive.aarc", true);
+            Archive a = reader.read();
+            assertTrue(a.filmCollection.isPartiallyDecoded());
+
+            Path file = Paths.get("./data/testCopiedFullArchive.aarc");
+            Files.write(file, new byte[0]);
+            Files.delete(file);
+
+            assertEquals("Kodak Ultramax", a.filmCollection.getRoll(0).getBrand());
+            assertEquals(1, a.filmCollection.filterByType("Instant Film").size());
+            assertFalse(a.filmCollection.isPartiallyDecoded());
+        } catch (IOException e) {
+            fail("Could not read from file");
+        }
+    }
+}
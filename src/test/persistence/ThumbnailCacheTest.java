@@ -0,0 +1,151 @@
+package persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThumbnailCacheTest {
+    private Path dir;
+    private String cacheDir;
+    private File photo;
+    private BufferedImage thumbnail;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        dir = Files.createTempDirectory("thumbs");
+        cacheDir = dir.resolve(".thumbs").toString();
+        photo = writePhoto("photo.png", 64, 48);
+        thumbnail = new BufferedImage(32, 24, BufferedImage.TYPE_INT_RGB);
+    }
+
+    private File writePhoto(String name, int width, int height) throws IOException {
+        File file = dir.resolve(name).toFile();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", file);
+        return file;
+    }
+
+    @Test
+    public void testPutGet() {
+        try {
+            ThumbnailCache cache = new ThumbnailCache(cacheDir, 1024 * 1024);
+            assertNull(cache.get(photo));
+            cache.put(photo, thumbnail);
+            assertTrue(cache.contains(photo));
+            assertEquals(1, cache.getEntryCount());
+
+            BufferedImage cached = cache.get(photo);
+            assertEquals(32, cached.getWidth());
+            assertEquals(24, cached.getHeight());
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+
+    @Test
+    public void testReopenKeepsThumbnails() {
+        try {
+            new ThumbnailCache(cacheDir, 1024 * 1024).put(photo, thumbnail);
+            Files.createFile(dir.resolve(".thumbs").resolve("partial.tmp"));
+
+            ThumbnailCache cache = new ThumbnailCache(cacheDir, 1024 * 1024);
+            assertEquals(1, cache.getEntryCount());
+            assertNotNull(cache.get(photo));
+            assertFalse(Files.exists(dir.resolve(".thumbs").resolve("partial.tmp")));
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+
+    @Test
+    public void testChangedPhotoInvalidated() {
+        try {
+            ThumbnailCache cache = new ThumbnailCache(cacheDir, 1024 * 1024);
+            cache.put(photo, thumbnail);
+            writePhoto("photo.png", 128, 96);
+            assertTrue(photo.setLastModified(photo.lastModified() + 2000));
+
+            assertFalse(cache.contains(photo));
+            assertNull(cache.get(photo));
+            assertEquals(0, cache.getEntryCount());
+            assertEquals(0, cache.getSize());
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        try {
+            File second = writePhoto("second.png", 64, 48);
+            File third = writePhoto("third.png", 64, 48);
+            ThumbnailCache unbounded = new ThumbnailCache(dir.resolve("probe").toString(), Long.MAX_VALUE);
+            unbounded.put(photo, thumbnail);
+            long entrySize = unbounded.getSize();
+
+            ThumbnailCache cache = new ThumbnailCache(cacheDir, 2 * entrySize);
+            cache.put(photo, thumbnail);
+            cache.put(second, thumbnail);
+            assertNotNull(cache.get(photo));
+            cache.put(third, thumbnail);
+
+            assertEquals(2, cache.getEntryCount());
+            assertTrue(cache.contains(photo));
+            assertFalse(cache.contains(second));
+            assertTrue(cache.contains(third));
+            assertTrue(cache.getSize() <= 2 * entrySize);
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+
+    @Test
+    public void testRemove() {
+        try {
+            ThumbnailCache cache = new ThumbnailCache(cacheDir, 1024 * 1024);
+            cache.put(photo, thumbnail);
+            cache.remove(photo);
+            assertEquals(0, cache.getEntryCount());
+            assertNull(cache.get(photo));
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+
+    @Test
+    public void testMissingPhoto() {
+        try {
+            ThumbnailCache cache = new ThumbnailCache(cacheDir, 1024 * 1024);
+            cache.get(dir.resolve("missing.png").toFile());
+            fail("IOException not thrown");
+        } catch (IOException e) {
+            //pass
+        }
+    }
+
+    @Test
+    public void testSetCapacityEvicts() {
+        try {
+            ThumbnailCache cache = new ThumbnailCache(cacheDir, 1024 * 1024);
+            File other = writePhoto("other.png", 64, 48);
+            long length = cache.put(photo, thumbnail);
+            assertEquals(length, cache.getSize());
+            cache.put(other, thumbnail);
+            assertEquals(1024 * 1024, cache.getCapacity());
+
+            cache.setCapacity(cache.getSize() - 1);
+            assertEquals(1, cache.getEntryCount());
+            assertFalse(cache.contains(photo));
+            assertTrue(cache.contains(other));
+        } catch (IOException e) {
+            fail("Could not read or write file");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ui.images;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BufferedDirectoryObserverTest {
+    private List<File> shown;
+    private List<String> events;
+    private BufferedDirectoryObserver observer;
+    private File a;
+    private File b;
+    private File c;
+
+    @BeforeEach
+    public void runBefore() {
+        shown = new ArrayList<>();
+        events = new ArrayList<>();
+        a = new File("roll/a.jpg");
+        b = new File("roll/b.jpg");
+        c = new File("roll/c.jpg");
+        observer = new BufferedDirectoryObserver(new DirectoryObserver() {
+            @Override
+            public void fileAdded(File file) {
+                events.add("added " + file.getName());
+                if (!shown.contains(file)) {
+                    shown.add(file);
+                }
+            }
+
+            @Override
+            public void fileRemoved(File file) {
+                events.add("removed " + file.getName());
+                shown.remove(file);
+            }
+
+            @Override
+            public void fileChanged(File file) {
+                events.add("changed " + file.getName());
+            }
+
+            @Override
+            public void directoryRescanned(File directory, List<File> files) {
+                events.add("rescanned " + files.size());
+            }
+        });
+    }
+
+    @Test
+    public void testPassesChangesStraightAway() {
+        assertFalse(observer.isHolding());
+        observer.fileAdded(a);
+        observer.fileChanged(a);
+        observer.directoryRescanned(new File("roll"), Arrays.asList(a, b));
+        assertEquals(Arrays.asList("added a.jpg", "changed a.jpg", "rescanned 2"), events);
+    }
+
+    @Test
+    public void testChangesDuringListingAppliedAfterListing() {
+        observer.hold();
+        // c is added while the directory is listed, and ends up in the listing
+        observer.fileAdded(c);
+        // b is removed while the directory is listed, after it was listed
+        observer.fileRemoved(b);
+        assertTrue(events.isEmpty());
+
+        shown.addAll(Arrays.asList(a, b, c));
+        observer.release();
+        assertFalse(observer.isHolding());
+        assertEquals(Arrays.asList("added c.jpg", "removed b.jpg"), events);
+        assertEquals(Arrays.asList(a, c), shown);
+
+        observer.fileRemoved(a);
+        assertEquals(Arrays.asList(c), shown);
+    }
+
+    @Test
+    public void testHoldForgetsChangesOfPreviousListing() {
+        observer.hold();
+        observer.fileAdded(a);
+        observer.hold();
+        observer.fileAdded(b);
+        observer.release();
+        assertEquals(Arrays.asList("added b.jpg"), events);
+    }
+}
@@ -0,0 +1,107 @@
+package ui.images;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.ThumbnailCache;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThumbnailBatchJobTest {
+    private String cacheDir;
+    private List<File> photos;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        Path dir = Files.createTempDirectory("batch");
+        cacheDir = dir.resolve(".thumbs").toString();
+        photos = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            File file = dir.resolve("photo" + i + ".png").toFile();
+            ImageIO.write(new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB), "png", file);
+            photos.add(file);
+        }
+    }
+
+    @Test
+    public void testGenerateAll() {
+        try {
+            ThumbnailCache cache = new ThumbnailCache(cacheDir, 1024 * 1024);
+            ThumbnailBatchJob.Progress progress = new ThumbnailBatchJob(cache, 3).run(photos, p -> { });
+            assertEquals(6, progress.getTotal());
+            assertEquals(6, progress.getGenerated());
+            assertEquals(6, progress.getProcessed());
+            assertEquals(6, cache.getEntryCount());
+        } catch (IOException | InterruptedException e) {
+            fail("Could not generate thumbnails");
+        }
+    }
+
+    @Test
+    public void testResumeSkipsCachedPhotos() {
+        try {
+            ThumbnailCache cache = new ThumbnailCache(cacheDir, 1024 * 1024);
+            ThumbnailBatchJob first = new ThumbnailBatchJob(cache, 1);
+            ThumbnailBatchJob.Progress progress = first.run(photos, p -> first.cancel());
+            assertTrue(first.isCancelled());
+            assertEquals(1, progress.getGenerated());
+            assertEquals(1, cache.getEntryCount());
+
+            progress = new ThumbnailBatchJob(cache, 2).run(photos, p -> { });
+            assertEquals(1, progress.getSkipped());
+            assertEquals(5, progress.getGenerated());
+            assertEquals(6, cache.getEntryCount());
+        } catch (IOException | InterruptedException e) {
+            fail("Could not generate thumbnails");
+        }
+    }
+
+    @Test
+    public void testUnreadablePhotoFails() {
+        try {
+            Files.write(photos.get(2).toPath(), new byte[] {1, 2, 3});
+            ThumbnailCache cache = new ThumbnailCache(cacheDir, 1024 * 1024);
+            ThumbnailBatchJob.Progress progress = new ThumbnailBatchJob(cache, 2).run(photos, p -> { });
+            assertEquals(1, progress.getFailed());
+            assertEquals(5, progress.getGenerated());
+            assertEquals(6, progress.getProcessed());
+        } catch (IOException | InterruptedException e) {
+            fail("Could not generate thumbnails");
+        }
+    }
+
+    @Test
+    public void testStopsWhenOverCapacity() {
+        try {
+            ThumbnailCache cache = new ThumbnailCache(cacheDir, 1024 * 1024);
+            cache.setCapacity(cache.put(photos.get(0), ImageLoader.decode(photos.get(0))) * 3);
+
+            ThumbnailBatchJob job = new ThumbnailBatchJob(cache, 1);
+            ThumbnailBatchJob.Progress progress = job.run(photos, p -> { });
+            assertTrue(job.isOverCapacity());
+            assertFalse(job.isCancelled());
+            assertTrue(job.getProjectedSize() > cache.getCapacity());
+            assertEquals(1, progress.getSkipped());
+            assertEquals(1, progress.getGenerated());
+            assertEquals(2, cache.getEntryCount());
+
+            cache.setCapacity(1024 * 1024);
+            job = new ThumbnailBatchJob(cache, 2);
+            progress = job.run(photos, p -> { });
+            assertFalse(job.isOverCapacity());
+            assertEquals(2, progress.getSkipped());
+            assertEquals(4, progress.getGenerated());
+            assertEquals(6, cache.getEntryCount());
+        } catch (IOException | InterruptedException e) {
+            fail("Could not generate thumbnails");
+        }
+    }
+}